@@ -0,0 +1,89 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class keeps one accelerated off-screen image (VolatileImage) that the game is drawn into
+ * before it is copied to the screen. The image is created once and reused for every frame, and
+ * the frame is drawn again whenever the graphics card throws the image contents away. When only
+ * part of the component is painted, only that region of the image is drawn and copied.
+ */
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.image.VolatileImage;
+import java.util.function.Consumer;
+
+public class BackBuffer {
+
+	// Size of the back buffer
+	private final int width;
+	private final int height;
+
+	// Accelerated off-screen image, created on first use
+	private VolatileImage image;
+
+	// Constructor takes the size of the back buffer
+	public BackBuffer(int width, int height) {
+		this.width = width;
+		this.height = height;
+	}
+
+	// Method to draw a frame into the back buffer and copy it onto the given graphics
+	public void render(Component owner, Graphics g, Color background, Consumer<Graphics2D> renderer) {
+		GraphicsConfiguration gc = owner.getGraphicsConfiguration();
+		if (gc == null) {
+			renderer.accept((Graphics2D) g); // Not on screen yet, draw directly
+			return;
+		}
+
+		Rectangle clip = g.getClipBounds(); // Region that needs painting, the whole frame if not clipped
+		int x = 0, y = 0, w = width, h = height;
+		if (clip != null) {
+			x = Math.max(0, clip.x);
+			y = Math.max(0, clip.y);
+			w = Math.min(width, clip.x + clip.width) - x;
+			h = Math.min(height, clip.y + clip.height) - y;
+			if (w <= 0 || h <= 0) {
+				return; // Nothing of the buffer is visible in the region
+			}
+		}
+
+		do {
+			// Recreate the image if it was never made or does not fit the screen anymore
+			boolean whole = false;
+			int state = image == null ? VolatileImage.IMAGE_INCOMPATIBLE : image.validate(gc);
+			if (state == VolatileImage.IMAGE_INCOMPATIBLE) {
+				flush();
+				image = gc.createCompatibleVolatileImage(width, height);
+				whole = true;
+			} else if (state == VolatileImage.IMAGE_RESTORED) {
+				whole = true; // The old contents are gone, the whole buffer must be drawn again
+			}
+
+			Graphics2D bufferGraphics = image.createGraphics();
+			try {
+				if (!whole) {
+					bufferGraphics.clipRect(x, y, w, h); // Keep the rest of the last frame
+				}
+				bufferGraphics.setColor(background);
+				bufferGraphics.fillRect(0, 0, width, height); // Clear the last frame
+				renderer.accept(bufferGraphics); // Draw the new frame
+			} finally {
+				bufferGraphics.dispose();
+			}
+
+			g.drawImage(image, x, y, x + w, y + h, x, y, x + w, y + h, null); // Copy the region to the screen
+		} while (image.contentsLost()); // Draw again if the contents were lost while copying
+	}
+
+	// Method to release the video memory held by the back buffer
+	public void flush() {
+		if (image != null) {
+			image.flush();
+			image = null;
+		}
+	}
+}
@@ -0,0 +1,286 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class streams the background music from disk on its own thread. Only the header of a track
+ * is read when it starts, so starting takes the same short time for any length of track. The
+ * samples are read ahead into a small ring buffer per track and written to one SourceDataLine.
+ * A track reopens itself before its ring runs dry, so it loops without a gap, and switching
+ * tracks crossfades from the old one to the new one. Switching again during a crossfade shortens
+ * the fades still running instead of cutting them off. Callers never wait on audio.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+public class BackgroundMusic {
+
+	// Music files used by the game
+	public static final String MENU = "Music/MainMenu.wav";
+	public static final String GAME = "Music/Game.wav";
+
+	// Every track is converted to this format: 44.1 kHz, 16 bit, stereo, little endian
+	private static final AudioFormat FORMAT = new AudioFormat(44100, 16, 2, true, false);
+	private static final int FRAME_BYTES = 4;
+	// Frames mixed and written at a time (about 12 ms), and the output line buffer (about 100 ms)
+	private static final int CHUNK_FRAMES = 512;
+	private static final int LINE_BYTES = 4410 * FRAME_BYTES;
+	// Read-ahead of each track, and the smallest free space worth a read from disk
+	private static final int RING_BYTES = 64 * 1024;
+	private static final int READ_BYTES = 16 * 1024;
+	// Length of a crossfade, and of the rest of a fade out that a newer switch cut short
+	private static final double FADE_SECONDS = 1.0;
+	private static final double HURRIED_FADE_SECONDS = 0.15;
+
+	// Track asked for by the game, and whether anything changed since the music thread last looked
+	private static String requested;
+	private static boolean changed;
+	private static Thread thread;
+
+	// Tracks played by the music thread: the one fading in or playing, and the ones fading out
+	private static Track current;
+	private static final List<Track> fading = new ArrayList<>();
+	// Files that could not be played, so each failure is only reported once
+	private static final Set<String> failedFiles = new HashSet<>();
+
+	// Method to start playing a track, crossfading from the one playing, never blocks
+	public static synchronized void play(String track) {
+		requested = track;
+		changed = true;
+		if (thread == null) {
+			thread = new Thread(BackgroundMusic::run, "Background Music");
+			thread.setDaemon(true); // Do not keep the program alive for music
+			thread.start();
+		}
+		BackgroundMusic.class.notifyAll(); // Wake the music thread if it is idle
+	}
+
+	// Method to fade the music out
+	public static void stop() {
+		play(null);
+	}
+
+	// Method to take the latest request, waiting for one if nothing is playing, returns false if
+	// there was no new request
+	private static synchronized boolean takeRequest(boolean idle) throws InterruptedException {
+		while (idle && !changed) {
+			BackgroundMusic.class.wait();
+		}
+		if (!changed) {
+			return false;
+		}
+		changed = false;
+		switchTo(requested);
+		return true;
+	}
+
+	// Method to crossfade to a track (or to silence for null), called by the music thread
+	private static void switchTo(String file) {
+		if (current != null && current.file.equals(file)) {
+			current.fadeTo(1); // Already playing
+			return;
+		}
+		Track back = null;
+		for (int i = 0; i < fading.size(); i++) {
+			if (fading.get(i).file.equals(file)) {
+				back = fading.remove(i); // Switching back to a track that was fading out
+				break;
+			}
+		}
+		if (current != null) {
+			for (int i = 0; i < fading.size(); i++) {
+				fading.get(i).hurry(); // Another switch mid-fade, finish the older fades quickly
+			}
+			current.fadeTo(0);
+			fading.add(current);
+		}
+		current = back != null || file == null ? back : Track.open(file);
+		if (current != null) {
+			current.fadeTo(1);
+		}
+	}
+
+	// Method to check if none of the tracks fading out can be heard any more
+	private static boolean fadesDone() {
+		for (int i = 0; i < fading.size(); i++) {
+			if (!fading.get(i).isSilent()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Method run by the music thread
+	private static void run() {
+		SourceDataLine line;
+		try {
+			line = AudioSystem.getSourceDataLine(FORMAT);
+			line.open(FORMAT, LINE_BYTES);
+		} catch (LineUnavailableException | IllegalArgumentException e) {
+			System.err.println("No audio output for music: " + e.getMessage());
+			return;
+		}
+
+		byte[] out = new byte[CHUNK_FRAMES * FRAME_BYTES];
+		int[] mix = new int[CHUNK_FRAMES * 2];
+		try {
+			while (true) {
+				boolean idle = (current == null || current.isSilent()) && fadesDone();
+				if (idle) {
+					line.drain(); // Let the last samples play, then sleep until a new track is asked for
+					line.stop();
+				}
+				takeRequest(idle);
+				if (!line.isRunning()) {
+					line.start();
+				}
+
+				Arrays.fill(mix, 0);
+				if (current != null) {
+					current.mixInto(mix);
+				}
+				for (int i = fading.size() - 1; i >= 0; i--) {
+					Track track = fading.get(i);
+					track.mixInto(mix);
+					if (track.isSilent()) {
+						track.close(); // Fade out finished
+						fading.remove(i);
+					}
+				}
+				for (int i = 0; i < mix.length; i++) {
+					int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+					out[i * 2] = (byte) sample;
+					out[i * 2 + 1] = (byte) (sample >> 8);
+				}
+				line.write(out, 0, out.length); // Blocks while the line is full, which paces this thread
+			}
+		} catch (InterruptedException e) {
+			line.close();
+		}
+	}
+
+	// One track streamed from disk through its ring buffer
+	private static class Track {
+		final String file;
+		private AudioInputStream stream;
+		private final byte[] ring = new byte[RING_BYTES];
+		private int head;
+		private int size;
+		private boolean failed;
+
+		// Volume, the volume faded towards, and the change per frame
+		private double gain;
+		private double target;
+		private double step;
+
+		private Track(String file) {
+			this.file = file;
+		}
+
+		// Method to open a track, reading only its header
+		static Track open(String file) {
+			Track track = new Track(file);
+			track.reopen();
+			return track;
+		}
+
+		// Method to start reading the track from its beginning
+		private void reopen() {
+			closeStream();
+			try {
+				AudioInputStream source = AudioSystem.getAudioInputStream(new File(file));
+				stream = source.getFormat().matches(FORMAT) ? source
+						: AudioSystem.getAudioInputStream(FORMAT, source); // Convert while streaming
+			} catch (UnsupportedAudioFileException | IOException | IllegalArgumentException e) {
+				if (failedFiles.add(file)) {
+					System.err.println("Cannot play " + file + ": " + e.getMessage());
+				}
+				failed = true; // Play silence instead
+			}
+		}
+
+		// Method to fade towards a volume over a full crossfade
+		void fadeTo(double volume) {
+			target = volume;
+			step = 1.0 / (FADE_SECONDS * FORMAT.getFrameRate());
+		}
+
+		// Method to finish the fade towards the target volume within a short time
+		void hurry() {
+			step = Math.max(step, 1.0 / (HURRIED_FADE_SECONDS * FORMAT.getFrameRate()));
+		}
+
+		// Method to check if the track can no longer be heard
+		boolean isSilent() {
+			return failed || gain == 0 && target == 0;
+		}
+
+		// Method to add the next chunk of the track to the mix
+		void mixInto(int[] mix) {
+			fill();
+			int frames = Math.min(CHUNK_FRAMES, size / FRAME_BYTES);
+			for (int f = 0; f < frames; f++) {
+				if (gain < target) {
+					gain = Math.min(target, gain + step);
+				} else if (gain > target) {
+					gain = Math.max(target, gain - step);
+				}
+				for (int channel = 0; channel < 2; channel++) {
+					int low = ring[head] & 0xFF;
+					int high = ring[(head + 1) % RING_BYTES];
+					mix[f * 2 + channel] += (int) ((high << 8 | low) * gain);
+					head = (head + 2) % RING_BYTES;
+				}
+			}
+			size -= frames * FRAME_BYTES;
+		}
+
+		// Method to read ahead from disk while the ring has room, looping at the end of the track
+		private void fill() {
+			int attempts = 0;
+			while (!failed && RING_BYTES - size >= READ_BYTES && attempts++ < 4) {
+				int tail = (head + size) % RING_BYTES;
+				int length = Math.min(READ_BYTES, RING_BYTES - tail);
+				try {
+					int read = stream.read(ring, tail, length);
+					if (read < 0) {
+						reopen(); // End of the track, start again straight away
+					} else {
+						size += read;
+					}
+				} catch (IOException e) {
+					if (failedFiles.add(file)) {
+						System.err.println("Cannot read " + file + ": " + e.getMessage());
+					}
+					failed = true;
+				}
+			}
+		}
+
+		// Method to close the file
+		void close() {
+			closeStream();
+		}
+
+		private void closeStream() {
+			if (stream != null) {
+				try {
+					stream.close();
+				} catch (IOException ignored) {
+				}
+				stream = null;
+			}
+		}
+	}
+}
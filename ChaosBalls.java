@@ -0,0 +1,344 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class is the chaos mode: thousands of extra balls bouncing around the court at once. The
+ * balls are not objects; their positions and velocities live in primitive arrays and are moved in
+ * one tight loop. Collisions with the paddles and between balls are found through a uniform grid
+ * of cells one ball wide, rebuilt every tick with a counting sort that also moves the balls into
+ * cell order, so each ball is only tested against the balls next to it in memory. Moving the balls
+ * and the ball to ball collisions can be split across all cores for large counts.
+ */
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ChaosBalls {
+
+	// Size of a ball, and the size of a grid cell (a ball only touches balls in neighbouring cells)
+	private static final int DIAMETER = PlayerBall.BALL_DIAMETER;
+	private static final double RADIUS = DIAMETER / 2.0;
+	private static final int CELL = DIAMETER;
+	private static final int COLUMNS = (GamePanel.GAME_WIDTH + CELL - 1) / CELL;
+	private static final int ROWS = (GamePanel.GAME_HEIGHT + CELL - 1) / CELL;
+	// Fastest a ball may move across the screen, below one ball width per tick at 60 ticks per second
+	private static final double MAX_SPEED = 1000;
+	// Balls moved by one task, and grid rows checked for collisions by one task
+	private static final int BALLS_PER_TASK = 4096;
+	private static final int BAND_ROWS = 2;
+	private static final int BANDS = (ROWS + BAND_ROWS - 1) / BAND_ROWS;
+
+	// Top left corner and velocity of every ball, in pixels and pixels per second, kept in cell order
+	private double[] x;
+	private double[] y;
+	private double[] vx;
+	private double[] vy;
+	private int count;
+	// Arrays the balls are sorted into, swapped with the ones above every tick
+	private double[] sortedX;
+	private double[] sortedY;
+	private double[] sortedVX;
+	private double[] sortedVY;
+
+	// Grid: the cell of each ball, and where each cell starts in the sorted order
+	private final int[] ballCell;
+	private final int[] cellStart = new int[COLUMNS * ROWS + 1];
+	// Ball to ball hits found by each band in the last tick
+	private final int[] bandHits = new int[BANDS];
+
+	private final SplittableRandom random;
+	private final boolean parallel;
+	// Length of the tick being run, read by the tasks
+	private double tickSeconds;
+
+	// Statistics: balls that left the court on each side (1 = past player 1), paddle and ball hits
+	private final long[] misses = new long[3];
+	private long padelHits;
+	private long ballHits;
+
+	// Constructor creates room for a number of balls, with a seed for where they appear
+	public ChaosBalls(int capacity, long seed, boolean parallel) {
+		x = new double[capacity];
+		y = new double[capacity];
+		vx = new double[capacity];
+		vy = new double[capacity];
+		sortedX = new double[capacity];
+		sortedY = new double[capacity];
+		sortedVX = new double[capacity];
+		sortedVY = new double[capacity];
+		ballCell = new int[capacity];
+		random = new SplittableRandom(seed);
+		this.parallel = parallel;
+	}
+
+	// Method to add balls at random places in the middle of the court, up to the capacity
+	public void spawn(int balls) {
+		int end = Math.min(x.length, count + balls);
+		for (int i = count; i < end; i++) {
+			launch(i, random.nextDouble(GamePanel.GAME_WIDTH / 3.0, GamePanel.GAME_WIDTH * 2 / 3.0 - DIAMETER));
+		}
+		count = end;
+	}
+
+	// Method to place a ball at an x position and random height, flying left or right at the serve speed
+	private void launch(int i, double startX) {
+		double angle = random.nextDouble(-Math.PI / 4, Math.PI / 4);
+		double speed = MatchRules.DEFAULT.ballSpeed;
+		x[i] = startX;
+		y[i] = random.nextDouble(0, Match.BALL_BOTTOM);
+		vx[i] = (random.nextBoolean() ? speed : -speed) * Math.cos(angle);
+		vy[i] = speed * Math.sin(angle);
+	}
+
+	// Method to remove every ball
+	public void clear() {
+		count = 0;
+	}
+
+	// Method to get the number of balls
+	public int getCount() {
+		return count;
+	}
+
+	// Method to get where a ball is, the order of the balls changes every tick
+	public double getX(int i) {
+		return x[i];
+	}
+
+	public double getY(int i) {
+		return y[i];
+	}
+
+	// Method to get the number of balls that got past a player's paddle
+	public long getMisses(int player) {
+		return misses[player];
+	}
+
+	// Method to advance every ball by one tick: move, bounce off the walls and paddles and each other
+	public void tick(double seconds, Padel padel1, Padel padel2) {
+		tickSeconds = seconds;
+		if (parallel && count > BALLS_PER_TASK) {
+			ForkJoinPool.commonPool().invoke(new MoveTask(0, count));
+		} else {
+			move(0, count);
+		}
+		buildGrid();
+		bouncePadel(padel1);
+		bouncePadel(padel2);
+
+		// Bands two rows high only touch their own rows and the row below, so every other band can
+		// run at the same time without two tasks changing the same ball
+		for (int first = 0; first < 2; first++) {
+			if (parallel && count > BALLS_PER_TASK) {
+				ForkJoinPool.commonPool().invoke(new BandTask(first, BANDS));
+			} else {
+				for (int band = first; band < BANDS; band += 2) {
+					collideBand(band);
+				}
+			}
+		}
+		for (int band = 0; band < BANDS; band++) {
+			ballHits += bandHits[band];
+		}
+	}
+
+	// Method to move a range of balls and bounce them off the top and bottom walls
+	private void move(int from, int to) {
+		double seconds = tickSeconds;
+		double bottom = Match.BALL_BOTTOM;
+		for (int i = from; i < to; i++) {
+			double newY = y[i] + vy[i] * seconds;
+			if (newY < 0) {
+				newY = -newY;
+				vy[i] = -vy[i];
+			} else if (newY > bottom) {
+				newY = 2 * bottom - newY;
+				vy[i] = -vy[i];
+			}
+			x[i] += vx[i] * seconds;
+			y[i] = newY;
+		}
+	}
+
+	// Method to launch the balls that left the court again and sort all balls into the grid by their
+	// center (counting sort, no allocation), moving them into cell order
+	private void buildGrid() {
+		int[] start = cellStart;
+		Arrays.fill(start, 0);
+		for (int i = 0; i < count; i++) {
+			if (x[i] < -DIAMETER || x[i] > GamePanel.GAME_WIDTH) {
+				misses[x[i] < 0 ? 1 : 2]++;
+				launch(i, (GamePanel.GAME_WIDTH - DIAMETER) / 2.0); // Serve it again from the middle
+			}
+			int column = clamp((int) ((x[i] + RADIUS) / CELL), COLUMNS);
+			int row = clamp((int) ((y[i] + RADIUS) / CELL), ROWS);
+			int cell = row * COLUMNS + column;
+			ballCell[i] = cell;
+			start[cell + 1]++;
+		}
+		for (int cell = 0; cell < COLUMNS * ROWS; cell++) {
+			start[cell + 1] += start[cell]; // Each cell starts where the one before it ends
+		}
+		for (int i = 0; i < count; i++) {
+			int k = start[ballCell[i]]++; // Moves each start to the end of its cell
+			sortedX[k] = x[i];
+			sortedY[k] = y[i];
+			sortedVX[k] = vx[i];
+			sortedVY[k] = vy[i];
+		}
+		double[] swap = x;
+		x = sortedX;
+		sortedX = swap;
+		swap = y;
+		y = sortedY;
+		sortedY = swap;
+		swap = vx;
+		vx = sortedVX;
+		sortedVX = swap;
+		swap = vy;
+		vy = sortedVY;
+		sortedVY = swap;
+		for (int cell = COLUMNS * ROWS; cell > 0; cell--) {
+			start[cell] = start[cell - 1]; // Move the starts back
+		}
+		start[0] = 0;
+	}
+
+	private static int clamp(int value, int size) {
+		return value < 0 ? 0 : value >= size ? size - 1 : value;
+	}
+
+	// Method to bounce the balls touching a paddle, only looking at the cells the paddle covers
+	private void bouncePadel(Padel padel) {
+		double left = padel.posX;
+		double right = padel.posX + padel.width;
+		double top = padel.posY;
+		double bottom = padel.posY + padel.height;
+		double center = (left + right) / 2;
+		int firstColumn = clamp((int) ((left - RADIUS) / CELL), COLUMNS);
+		int lastColumn = clamp((int) ((right + RADIUS) / CELL), COLUMNS);
+		int firstRow = clamp((int) ((top - RADIUS) / CELL), ROWS);
+		int lastRow = clamp((int) ((bottom + RADIUS) / CELL), ROWS);
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				int cell = row * COLUMNS + column;
+				for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+					if (x[i] >= right || x[i] + DIAMETER <= left || y[i] >= bottom || y[i] + DIAMETER <= top) {
+						continue;
+					}
+					boolean fromLeft = x[i] + RADIUS < center;
+					if (fromLeft ? vx[i] > 0 : vx[i] < 0) {
+						vx[i] = -vx[i]; // Send it back the way it came, with some of the paddle's movement
+						vy[i] = Math.max(-MAX_SPEED, Math.min(MAX_SPEED, vy[i] + padel.yVelocity / 5));
+						x[i] = fromLeft ? left - DIAMETER : right;
+						padelHits++;
+					}
+				}
+			}
+		}
+	}
+
+	// Method to bounce the touching balls of one band of rows off each other. Each pair is checked
+	// once: within a cell, and against the cells to the right and in the row below.
+	private void collideBand(int band) {
+		int hits = 0;
+		int lastRow = Math.min(ROWS, (band + 1) * BAND_ROWS);
+		for (int row = band * BAND_ROWS; row < lastRow; row++) {
+			for (int column = 0; column < COLUMNS; column++) {
+				int cell = row * COLUMNS + column;
+				for (int a = cellStart[cell]; a < cellStart[cell + 1]; a++) {
+					hits += collideCell(a, a + 1, cellStart[cell + 1]);
+					if (column + 1 < COLUMNS) {
+						hits += collideCell(a, cellStart[cell + 1], cellStart[cell + 2]);
+					}
+					if (row + 1 < ROWS) {
+						int below = cell + COLUMNS;
+						int from = cellStart[column > 0 ? below - 1 : below];
+						int to = cellStart[column + 1 < COLUMNS ? below + 2 : below + 1];
+						hits += collideCell(a, from, to); // The three cells below are next to each other
+					}
+				}
+			}
+		}
+		bandHits[band] = hits;
+	}
+
+	// Method to bounce a ball off a range of balls, returns the number of hits
+	private int collideCell(int a, int from, int to) {
+		int hits = 0;
+		double ax = x[a];
+		double ay = y[a];
+		for (int b = from; b < to; b++) {
+			double dx = x[b] - ax;
+			double dy = y[b] - ay;
+			double distanceSquared = dx * dx + dy * dy;
+			if (distanceSquared >= DIAMETER * DIAMETER || distanceSquared == 0) {
+				continue;
+			}
+			double closing = (vx[b] - vx[a]) * dx + (vy[b] - vy[a]) * dy;
+			if (closing < 0) {
+				// Equal masses: swap the parts of the velocities along the line between the centers
+				double impulse = closing / distanceSquared;
+				vx[a] += impulse * dx;
+				vy[a] += impulse * dy;
+				vx[b] -= impulse * dx;
+				vy[b] -= impulse * dy;
+				hits++;
+			}
+		}
+		return hits;
+	}
+
+	// Method to describe the statistics in one line
+	public String report() {
+		return String.format("chaos: %d balls, %d paddle hits, %d ball hits, missed %d / %d", count, padelHits,
+				ballHits, misses[1], misses[2]);
+	}
+
+	// Task moving a range of balls, split in halves until small enough
+	@SuppressWarnings("serial")
+	private class MoveTask extends RecursiveAction {
+		private final int from;
+		private final int to;
+
+		MoveTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= BALLS_PER_TASK) {
+				move(from, to);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new MoveTask(from, middle), new MoveTask(middle, to));
+			}
+		}
+	}
+
+	// Task colliding every other band from first up to last, split in halves until one band is left
+	@SuppressWarnings("serial")
+	private class BandTask extends RecursiveAction {
+		private final int first;
+		private final int last;
+
+		BandTask(int first, int last) {
+			this.first = first;
+			this.last = last;
+		}
+
+		@Override
+		protected void compute() {
+			if (first + 2 >= last) {
+				if (first < last) {
+					collideBand(first);
+				}
+			} else {
+				int middle = first + Math.max(2, (last - first) / 4 * 2); // Keep both halves on every other band
+				invokeAll(new BandTask(first, middle), new BandTask(middle, last));
+			}
+		}
+	}
+}
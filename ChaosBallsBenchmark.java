@@ -0,0 +1,42 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class measures the cost of one chaos mode tick for several numbers of balls, on one core
+ * and on all cores, with both paddles resting in the middle of their sides. It prints the time per
+ * tick and per ball and the number of collisions per tick, as a check that the balls do meet.
+ * Usage: java -Djava.awt.headless=true ChaosBallsBenchmark [ticks] [ball counts...]
+ */
+
+class ChaosBallsBenchmark {
+	public static void main(String[] args) {
+		int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 600;
+		int[] counts = { 1_000, 10_000, 100_000 };
+		if (args.length > 1) {
+			counts = new int[args.length - 1];
+			for (int i = 1; i < args.length; i++) {
+				counts[i - 1] = Integer.parseInt(args[i]);
+			}
+		}
+		double seconds = 1.0 / Integer.getInteger("pong.tickRate", 60);
+		Match match = new Match(1, 1 / seconds); // Only used for its paddles
+
+		System.out.printf("%d ticks per run on %d cores%n", ticks, Runtime.getRuntime().availableProcessors());
+		for (int count : counts) {
+			for (boolean parallel : new boolean[] { false, true }) {
+				ChaosBalls balls = new ChaosBalls(count, 1, parallel);
+				balls.spawn(count);
+				int warmUp = ticks / 5;
+				long start = 0;
+				for (int t = 0; t < ticks + warmUp; t++) {
+					if (t == warmUp) {
+						start = System.nanoTime(); // Time after the JIT has warmed up
+					}
+					balls.tick(seconds, match.padel1, match.padel2);
+				}
+				double nanos = (double) (System.nanoTime() - start) / ticks;
+				System.out.printf("%7d balls, %-8s %9.3f ms/tick, %6.1f ns/ball, %s%n", count,
+						parallel ? "parallel" : "serial", nanos / 1e6, nanos / count, balls.report());
+			}
+		}
+	}
+}
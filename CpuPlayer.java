@@ -0,0 +1,140 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class plays one paddle against a human or another computer player. It works out where the
+ * ball will cross its paddle by unfolding the bounces off the top and bottom walls in closed form,
+ * so each tick costs the same few operations however far away the ball is. It sees the ball a
+ * reaction time late and aims with an error that grows with the ball's flight time, which is what
+ * the difficulty levels change.
+ */
+
+import java.util.SplittableRandom;
+
+public class CpuPlayer implements MatchController {
+
+	// Difficulty levels: reaction time in seconds, and aiming error in pixels per second of flight
+	public enum Level {
+		EASY(0.30, 140), NORMAL(0.18, 70), HARD(0.08, 25), PERFECT(0, 0);
+
+		final double reactionSeconds;
+		final double noise;
+
+		Level(double reactionSeconds, double noise) {
+			this.reactionSeconds = reactionSeconds;
+			this.noise = noise;
+		}
+	}
+
+	// Time the computer waits before serving
+	private static final double SERVE_SECONDS = 1.0;
+	// Most ticks of reaction time remembered
+	private static final int HISTORY = 64;
+
+	// Player this controls, 1 (left) or 2 (right), and how well it plays
+	private final int player;
+	private final Level level;
+	private final SplittableRandom random;
+
+	// Ball position and velocity over the last ticks, to react to a late view of the ball
+	private final double[] historyX = new double[HISTORY];
+	private final double[] historyY = new double[HISTORY];
+	private final double[] historyVX = new double[HISTORY];
+	private final double[] historyVY = new double[HISTORY];
+	private long ticks;
+
+	// Aiming error in pixels for the current flight of the ball, drawn again whenever it changes direction
+	private double lastVX;
+	private double lastVY;
+	private double error;
+	// Ticks spent waiting to serve
+	private int waitingToServe;
+
+	// Constructor creates a computer player for a paddle, with a seed for its aiming errors
+	public CpuPlayer(int player, Level level, long seed) {
+		if (player != 1 && player != 2) {
+			throw new IllegalArgumentException("player must be 1 or 2");
+		}
+		this.player = player;
+		this.level = level;
+		this.random = new SplittableRandom(seed);
+	}
+
+	// Method to get the player this controls
+	public int getPlayer() {
+		return player;
+	}
+
+	// Method to get the input bits of the paddle this controls
+	public int getInputMask() {
+		return player == 1 ? Match.P1_UP | Match.P1_DOWN : Match.P2_UP | Match.P2_DOWN;
+	}
+
+	@Override
+	// Method to choose the input bits of the next tick for this player's paddle (and its serve)
+	public int inputs(Match match) {
+		double tickSeconds = match.getTickSeconds();
+		PlayerBall ball = match.ball;
+		Padel padel = player == 1 ? match.padel1 : match.padel2;
+
+		// Remember the ball and look at it as it was a reaction time ago
+		int slot = (int) (ticks++ % HISTORY);
+		historyX[slot] = ball.posX;
+		historyY[slot] = ball.posY;
+		historyVX[slot] = ball.xVelocity;
+		historyVY[slot] = ball.yVelocity;
+		int delay = (int) Math.min(Math.min(level.reactionSeconds / tickSeconds, HISTORY - 1), ticks - 1);
+		int seen = (int) ((ticks - 1 - delay) % HISTORY);
+		double x = historyX[seen];
+		double y = historyY[seen];
+		double vx = historyVX[seen];
+		double vy = historyVY[seen];
+
+		// Aim for the middle of the screen unless the ball is coming this way
+		double target = GamePanel.GAME_HEIGHT / 2.0;
+		boolean coming = player == 1 ? vx < 0 : vx > 0;
+		if (coming) {
+			double faceX = player == 1 ? padel.posX + Padel.PADEL_LENGTH : padel.posX - PlayerBall.BALL_DIAMETER;
+			double flight = Math.max(0, (faceX - x) / vx);
+			if (vx != lastVX || vy != lastVY) {
+				// A new flight, choose how far off the aim is for all of it, more for a longer flight
+				error = level.noise * flight * (random.nextDouble() + random.nextDouble() - 1);
+				lastVX = vx;
+				lastVY = vy;
+			}
+			target = interceptY(y, vy, flight) + PlayerBall.BALL_DIAMETER / 2.0 + error;
+		}
+
+		// Move the paddle's center towards the target, and stop once it is within one tick of movement
+		int inputs = 0;
+		double center = padel.posY + padel.height / 2.0;
+		double deadZone = padel.SPEED * tickSeconds;
+		if (target < center - deadZone) {
+			inputs = player == 1 ? Match.P1_UP : Match.P2_UP;
+		} else if (target > center + deadZone) {
+			inputs = player == 1 ? Match.P1_DOWN : Match.P2_DOWN;
+		}
+
+		// Serve when it is this player's turn, after a short wait
+		if (!match.gameStarted && !match.gameOver && match.lastWinningPlayer == player) {
+			if (++waitingToServe * tickSeconds >= SERVE_SECONDS) {
+				inputs |= Match.SERVE;
+				waitingToServe = 0;
+			}
+		} else {
+			waitingToServe = 0;
+		}
+		return inputs;
+	}
+
+	// Method to find the y position of the ball after a flight time, bouncing between the walls.
+	// Unfolding the bounces makes the path a straight line over a mirrored strip of height 2 * bottom.
+	static double interceptY(double y, double yVelocity, double seconds) {
+		double bottom = Match.BALL_BOTTOM;
+		double period = 2 * bottom;
+		double unfolded = (y + yVelocity * seconds) % period;
+		if (unfolded < 0) {
+			unfolded += period;
+		}
+		return unfolded <= bottom ? unfolded : period - unfolded;
+	}
+}
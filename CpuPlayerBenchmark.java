@@ -0,0 +1,111 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class plays computer players of every level against each other as fast as possible. It
+ * prints how often each level wins, the simulation speed, and the cost of one computer player
+ * decision (average, p99 and worst), which has to stay small enough for hundreds of matches at once.
+ * All pairings are played once first without timing, so the JIT has compiled the decision code
+ * before it is measured. The p99 and worst decision are flagged when they do not fit in the
+ * decision budget: one tick shared by DECISIONS_PER_TICK computer players.
+ * Usage: java -Djava.awt.headless=true CpuPlayerBenchmark [matches per pairing] [warm-up matches per pairing]
+ */
+
+class CpuPlayerBenchmark {
+	// Longest a match may last before it counts as a draw, in seconds of play
+	private static final int MAX_MATCH_SECONDS = 600;
+	// Computer players that must be able to decide within one tick on one core
+	private static final int DECISIONS_PER_TICK = 200;
+	// Decision times are counted in buckets of this many nanoseconds, longer ones share the last bucket
+	private static final int BUCKET_NANOS = 100;
+	private static final int BUCKETS = 10_000;
+
+	// Decision time statistics of the measured run
+	private static final long[] buckets = new long[BUCKETS];
+	private static long decisions, decisionNanos, worst, ticks;
+
+	public static void main(String[] args) {
+		int matches = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		int warmUpMatches = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		int tickRate = Integer.getInteger("pong.tickRate", 60);
+
+		playAll(warmUpMatches, tickRate, false); // Let the JIT compile everything first
+		System.out.printf("%d matches per pairing at %d Hz after %d warm-up matches, left player wins / right player"
+				+ " wins / draws%n", matches, tickRate, warmUpMatches);
+		long start = System.nanoTime();
+		playAll(matches, tickRate, true);
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("%d ticks in %.2f s: %.0f ticks/s, %.0fx real time%n", ticks, seconds, ticks / seconds,
+				ticks / seconds / tickRate);
+		double budgetMicros = 1e6 / tickRate / DECISIONS_PER_TICK;
+		double p99Micros = percentile(0.99) / 1e3;
+		double worstMicros = worst / 1e3;
+		System.out.printf("decision cost avg %.1f ns (with timer overhead), p99 %.2f us%s, worst %.1f us%s (of %d)%n",
+				(double) decisionNanos / decisions, p99Micros, p99Micros > budgetMicros ? " OVER BUDGET" : "",
+				worstMicros, worstMicros > budgetMicros ? " OVER BUDGET" : "", decisions);
+		System.out.printf("decision budget %.1f us: a %.2f ms tick shared by %d computer players%n", budgetMicros,
+				1e3 / tickRate, DECISIONS_PER_TICK);
+	}
+
+	// Method to play every pairing of levels, timing the decisions and printing the results if asked to
+	private static void playAll(int matches, int tickRate, boolean measure) {
+		long maxTicks = (long) MAX_MATCH_SECONDS * tickRate;
+		CpuPlayer.Level[] levels = CpuPlayer.Level.values();
+		for (CpuPlayer.Level left : levels) {
+			for (CpuPlayer.Level right : levels) {
+				int leftWins = 0, rightWins = 0, draws = 0;
+				for (int m = 0; m < matches; m++) {
+					Match match = new Match(m, tickRate);
+					CpuPlayer player1 = new CpuPlayer(1, left, m * 2 + 1);
+					CpuPlayer player2 = new CpuPlayer(2, right, m * 2 + 2);
+					while (!match.gameOver && match.tick < maxTicks) {
+						long t0 = System.nanoTime();
+						int inputs = player1.inputs(match);
+						long t1 = System.nanoTime();
+						inputs |= player2.inputs(match);
+						long t2 = System.nanoTime();
+						if (measure) {
+							record(t1 - t0);
+							record(t2 - t1);
+						}
+						match.tick(inputs);
+					}
+					if (measure) {
+						ticks += match.tick;
+					}
+					if (match.winner == 1) {
+						leftWins++;
+					} else if (match.winner == 2) {
+						rightWins++;
+					} else {
+						draws++;
+					}
+				}
+				if (measure) {
+					System.out.printf("%-8s vs %-8s %4d / %4d / %4d%n", left, right, leftWins, rightWins, draws);
+				}
+			}
+		}
+	}
+
+	// Method to add one decision time to the statistics
+	private static void record(long nanos) {
+		buckets[(int) Math.min(nanos / BUCKET_NANOS, BUCKETS - 1)]++;
+		decisions++;
+		decisionNanos += nanos;
+		worst = Math.max(worst, nanos);
+	}
+
+	// Method to get the upper bound of the bucket holding the given percentile of the decision times
+	private static long percentile(double p) {
+		long rank = (long) Math.ceil(p * decisions);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += buckets[i];
+			if (seen >= rank && seen > 0) {
+				return i == BUCKETS - 1 ? worst : (i + 1L) * BUCKET_NANOS;
+			}
+		}
+		return worst;
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class keeps track of the parts of the screen that changed since the last frame (damage).
+ * The game thread reports where each moving object is every frame, and only the old and new
+ * bounds of the objects that moved are painted again, each as its own small region.
+ */
+
+import java.awt.Rectangle;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+public class DamageTracker {
+
+	// Component the damaged regions are painted on
+	private final JComponent owner;
+
+	// Bounds of every tracked object when it was last reported, only used by the game thread
+	private final Rectangle[] previous;
+	private final boolean[] known;
+
+	// Regions waiting to be painted, shared with the EDT and guarded by this tracker
+	private final Rectangle[] pending;
+	private int pendingCount;
+	private boolean pendingFull;
+	private boolean scheduled;
+
+	// Regions being painted, only used by the EDT
+	private final Rectangle[] painting;
+	private final Runnable painter = this::paintPending;
+
+	// Constructor takes the component to paint and the number of objects that are tracked
+	public DamageTracker(JComponent owner, int items) {
+		this.owner = owner;
+		previous = new Rectangle[items];
+		known = new boolean[items];
+		pending = new Rectangle[items * 2];
+		painting = new Rectangle[items * 2];
+		for (int i = 0; i < items; i++) {
+			previous[i] = new Rectangle();
+		}
+		for (int i = 0; i < pending.length; i++) {
+			pending[i] = new Rectangle();
+			painting[i] = new Rectangle();
+		}
+	}
+
+	// Method to report where an object is now, damaging its old and new bounds if it moved
+	public void track(int item, int x, int y, int width, int height) {
+		Rectangle last = previous[item];
+		if (known[item] && last.x == x && last.y == y && last.width == width && last.height == height) {
+			return; // Nothing changed
+		}
+		if (known[item]) {
+			damage(last.x, last.y, last.width, last.height); // Erase the object where it was
+		}
+		damage(x, y, width, height); // Draw the object where it is now
+		last.setBounds(x, y, width, height);
+		known[item] = true;
+	}
+
+	// Method to damage the whole component, used on screen transitions
+	public synchronized void damageAll() {
+		pendingFull = true;
+	}
+
+	// Method to add a region to the pending damage, merging it with a region it overlaps
+	public synchronized void damage(int x, int y, int width, int height) {
+		if (pendingFull || width <= 0 || height <= 0) {
+			return;
+		}
+		for (int i = 0; i < pendingCount; i++) {
+			Rectangle region = pending[i];
+			if (region.intersects(x, y, width, height)) {
+				region.add(x, y); // Grow the region to cover both
+				region.add(x + width, y + height);
+				return;
+			}
+		}
+		if (pendingCount == pending.length) {
+			pendingFull = true; // The EDT has fallen behind, paint everything once it catches up
+			return;
+		}
+		pending[pendingCount++].setBounds(x, y, width, height);
+	}
+
+	// Method to ask the EDT to paint the pending damage, called once per frame by the game thread
+	public synchronized void flush() {
+		if (!scheduled && (pendingFull || pendingCount > 0)) {
+			scheduled = true;
+			SwingUtilities.invokeLater(painter);
+		}
+	}
+
+	// Method run on the EDT to paint every damaged region
+	private void paintPending() {
+		int count;
+		boolean full;
+		synchronized (this) {
+			full = pendingFull;
+			count = pendingCount;
+			for (int i = 0; i < count; i++) {
+				painting[i].setBounds(pending[i]);
+			}
+			pendingFull = false;
+			pendingCount = 0;
+			scheduled = false;
+		}
+
+		if (full) {
+			owner.paintImmediately(0, 0, owner.getWidth(), owner.getHeight());
+			return;
+		}
+		for (int i = 0; i < count; i++) {
+			owner.paintImmediately(painting[i]); // Paint only this region
+		}
+	}
+}
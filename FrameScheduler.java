@@ -0,0 +1,141 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class paces a loop at a fixed rate. It sleeps the thread until shortly before the next
+ * beat is due and spins only for the last moment, limits how many beats are caught up after a stall
+ * and keeps track of how late each beat starts (jitter). The game's render loop waits for frames
+ * with it and leaves the simulation ticks to TickClock; headless loops such as the match server
+ * shards still use it to run their ticks.
+ */
+
+import java.util.concurrent.locks.LockSupport;
+
+public class FrameScheduler {
+
+	// Time before a deadline that is spun instead of parked, to hide the OS timer granularity
+	private static final long SPIN_NANOS = 1_500_000L;
+	// Length of the window the jitter statistics are collected over
+	private static final long REPORT_NANOS = 1_000_000_000L;
+
+	// Length of one tick and the maximum number of ticks run back to back after a stall
+	private final long tickNanos;
+	private final int maxCatchUpTicks;
+
+	// Time the next tick is due
+	private long nextTick;
+
+	// Jitter statistics of the current window
+	private long windowStart;
+	private long windowTicks;
+	private long windowWakeUps;
+	private long windowLatenessSum;
+	private long windowLatenessMax;
+
+	// Statistics of the last finished window, read by other threads
+	private volatile double ticksPerSecond;
+	private volatile double averageJitterMillis;
+	private volatile double maxJitterMillis;
+	private volatile long droppedTicks;
+
+	// Constructor takes the tick rate and the catch-up cap
+	public FrameScheduler(double tickRate, int maxCatchUpTicks) {
+		if (tickRate <= 0 || maxCatchUpTicks < 1) {
+			throw new IllegalArgumentException("tick rate and catch-up cap must be positive");
+		}
+		this.tickNanos = (long) (1_000_000_000L / tickRate);
+		this.maxCatchUpTicks = maxCatchUpTicks;
+		nextTick = System.nanoTime() + tickNanos;
+		windowStart = System.nanoTime();
+	}
+
+	// Method to wait for the next frame of a render loop, which never catches up frames it missed
+	public void awaitFrame() {
+		awaitTicks();
+	}
+
+	// Method to wait for the next tick, returns how many ticks are due (at least 1)
+	public int awaitTicks() {
+		waitUntil(nextTick);
+		long now = System.nanoTime();
+		long lateness = now - nextTick; // How late the first due tick starts
+
+		int due = (int) (lateness / tickNanos) + 1;
+		if (due > maxCatchUpTicks) {
+			droppedTicks += due - maxCatchUpTicks; // Give up on the ticks we cannot catch up
+			due = maxCatchUpTicks;
+			nextTick = now + tickNanos; // Start a fresh schedule from now
+		} else {
+			nextTick += due * tickNanos;
+		}
+
+		recordJitter(now, lateness, due);
+		return due;
+	}
+
+	// Method to park the thread until shortly before the deadline, then spin until it has passed
+	private static void waitUntil(long deadline) {
+		while (true) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return;
+			}
+			if (remaining > SPIN_NANOS) {
+				LockSupport.parkNanos(remaining - SPIN_NANOS); // Give the CPU away
+			} else {
+				Thread.onSpinWait(); // Short busy wait for an accurate wake up
+			}
+		}
+	}
+
+	// Method to add one wake up to the jitter statistics
+	private void recordJitter(long now, long lateness, int ticks) {
+		windowTicks += ticks;
+		windowWakeUps++;
+		windowLatenessSum += lateness;
+		windowLatenessMax = Math.max(windowLatenessMax, lateness);
+
+		long elapsed = now - windowStart;
+		if (elapsed >= REPORT_NANOS) {
+			ticksPerSecond = windowTicks * 1e9 / elapsed;
+			averageJitterMillis = windowLatenessSum / 1e6 / windowWakeUps;
+			maxJitterMillis = windowLatenessMax / 1e6;
+
+			windowStart = now; // Start a new window
+			windowTicks = 0;
+			windowWakeUps = 0;
+			windowLatenessSum = 0;
+			windowLatenessMax = 0;
+		}
+	}
+
+	// Method to get the time the next tick is due, a tick still running after it missed its deadline
+	public long getNextTickNanos() {
+		return nextTick;
+	}
+
+	// Method to get the number of ticks run per second in the last window
+	public double getTicksPerSecond() {
+		return ticksPerSecond;
+	}
+
+	// Method to get the average time a tick started after its deadline in the last window
+	public double getAverageJitterMillis() {
+		return averageJitterMillis;
+	}
+
+	// Method to get the latest start of a tick after its deadline in the last window
+	public double getMaxJitterMillis() {
+		return maxJitterMillis;
+	}
+
+	// Method to get the number of ticks skipped because of the catch-up cap
+	public long getDroppedTicks() {
+		return droppedTicks;
+	}
+
+	// Method to describe the scheduler statistics in one line
+	public String report() {
+		return String.format("%.1f/s, jitter avg %.3f ms, max %.3f ms, dropped %d", ticksPerSecond,
+				averageJitterMillis, maxJitterMillis, droppedTicks);
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class owns the one thread that runs the game loop. The thread is created once and lives as
+ * long as the engine; pausing parks it without using any CPU, resuming wakes it, and shutting down
+ * ends it and waits for it. The game is told when it resumes so it can restart its clocks instead
+ * of catching up the time spent paused. The game may also put the engine to sleep (doze) while
+ * nothing on screen can change; any wake-up request (a key, a click, the window coming back) runs
+ * the next frame straight away. The time asleep, the CPU used by the process while asleep and the
+ * wake-up latency are kept for the report. A frame that throws is printed and pauses the engine,
+ * so the window can resume it instead of the game thread dying.
+ */
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+
+public class GameEngine {
+
+	// The game run by the engine, called on the engine thread only
+	public interface Game {
+		// Method called before the first frame after a (re)start
+		void resumed();
+
+		// Method to wait for and run one frame
+		void frame();
+	}
+
+	private final Game game;
+	private final Thread thread;
+	// Whether the loop should run, whether it should end, and whether it was paused since the last
+	// frame (true before the first frame)
+	private boolean running;
+	private boolean shutdown;
+	private boolean paused = true;
+	// Whether the game put the engine to sleep, and the number of wake-up requests so far
+	private boolean dozing;
+	private long wakeRequests;
+
+	// Power statistics: when the current doze started and the process CPU time then, the totals of
+	// finished dozes, and the wake-ups with their latency from request to the end of the next frame
+	private long dozeStart;
+	private long dozeCpuStart;
+	private long dozeNanos;
+	private long dozeCpuNanos;
+	private long wokenAt;
+	private long frameWokenAt; // Wake-up time of the frame being run, only used by the engine thread
+	private long wakeUps;
+	private long wakeLatencySum;
+	private long wakeLatencyMax;
+	private final long created = System.nanoTime();
+
+	// Constructor creates the engine thread, paused until resume is called
+	public GameEngine(String name, Game game) {
+		this.game = game;
+		thread = new Thread(this::run, name);
+		thread.setDaemon(true); // Do not keep the program alive once the window is gone
+		thread.start();
+	}
+
+	// Method to start or continue running frames
+	public synchronized void resume() {
+		endDoze();
+		running = true;
+		notifyAll();
+	}
+
+	// Method to stop running frames after the current one
+	public synchronized void pause() {
+		endDoze(); // A paused engine is not woken by wake-up requests
+		running = false;
+		paused = true;
+	}
+
+	// Method to get the number of wake-up requests so far, read by the game before it decides to doze
+	public synchronized long getWakeRequests() {
+		return wakeRequests;
+	}
+
+	// Method for the game to put the engine to sleep after the current frame, unless a wake-up was
+	// requested since it read the number of requests, returns true if it dozes
+	public synchronized boolean doze(long seenWakeRequests) {
+		if (!running || wakeRequests != seenWakeRequests) {
+			return false;
+		}
+		running = false;
+		paused = true;
+		dozing = true;
+		dozeStart = System.nanoTime();
+		dozeCpuStart = processCpuNanos();
+		return true;
+	}
+
+	// Method to wake the engine if it dozes, may be called from any thread
+	public synchronized void wake() {
+		wakeRequests++;
+		if (dozing) {
+			endDoze();
+			wokenAt = System.nanoTime();
+			running = true;
+			notifyAll();
+		}
+	}
+
+	// Method to add a finished doze to the statistics
+	private void endDoze() {
+		if (dozing) {
+			dozing = false;
+			dozeNanos += System.nanoTime() - dozeStart;
+			long cpu = processCpuNanos();
+			if (cpu >= 0 && dozeCpuStart >= 0) {
+				dozeCpuNanos += cpu - dozeCpuStart;
+			}
+		}
+	}
+
+	// Method to get the CPU time used by the whole process, -1 if the JVM does not tell
+	private static long processCpuNanos() {
+		OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+		if (os instanceof com.sun.management.OperatingSystemMXBean) {
+			return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+		}
+		return -1;
+	}
+
+	// Method to describe the power statistics in one line
+	public synchronized String report() {
+		double lifetime = System.nanoTime() - created;
+		return String.format("power: asleep %.1f%% of the time using %.2f%% of a core, %d wake-ups,"
+				+ " wake latency avg %.2f ms, max %.2f ms", 100 * dozeNanos / lifetime,
+				dozeNanos == 0 ? 0.0 : 100.0 * dozeCpuNanos / dozeNanos, wakeUps,
+				wakeUps == 0 ? 0.0 : wakeLatencySum / 1e6 / wakeUps, wakeLatencyMax / 1e6);
+	}
+
+	// Method to end the engine thread, waits for the current frame to finish
+	public void shutdown() throws InterruptedException {
+		synchronized (this) {
+			shutdown = true;
+			notifyAll();
+		}
+		if (Thread.currentThread() != thread) {
+			thread.join();
+		}
+	}
+
+	// Method run by the engine thread
+	private void run() {
+		try {
+			while (true) {
+				boolean resumed = awaitRunning();
+				try {
+					if (resumed) {
+						game.resumed();
+					}
+					game.frame();
+				} catch (RuntimeException e) {
+					e.printStackTrace(); // Keep the thread, the game restarts its clocks when resumed again
+					pause();
+					continue;
+				}
+				if (frameWokenAt != 0) {
+					wokeUp(System.nanoTime() - frameWokenAt); // First frame after a wake-up is done
+				}
+			}
+		} catch (InterruptedException e) {
+			// Shut down
+		}
+	}
+
+	// Method to park the engine thread while paused, returns true if it was paused since the last frame
+	private synchronized boolean awaitRunning() throws InterruptedException {
+		while (!running && !shutdown) {
+			wait();
+		}
+		if (shutdown) {
+			throw new InterruptedException();
+		}
+		frameWokenAt = wokenAt;
+		wokenAt = 0;
+		boolean wasPaused = paused;
+		paused = false;
+		return wasPaused;
+	}
+
+	// Method to record the latency of the last wake-up
+	private synchronized void wokeUp(long latency) {
+		wakeUps++;
+		wakeLatencySum += latency;
+		wakeLatencyMax = Math.max(wakeLatencyMax, latency);
+	}
+}
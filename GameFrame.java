@@ -7,21 +7,21 @@
  */
 
 import java.awt.*;
-import javax.sound.sampled.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import javax.swing.*;
-import java.io.File;
-import java.io.IOException;
 
 // GameFrame class extending JFrame to create the main game window
 public class GameFrame extends JFrame {
 
-	GamePanel gamePanel; // The panel where the game is played
-	JPanel startPanel; // The panel for the start screen
+	GamePanel gamePanel; // The panel where the game is played, created once and reused for every game
+	JPanel startPanel; // The panel for the start screen, created once
 
 	// initialize buttons, labels, and panels
-	JButton playButton, moreInfoButton;
+	JButton playButton, cpuButton, moreInfoButton, leaderboardButton;
 	JLabel titleLabel;
 	MoreInfoPage moreInfoPanel;
+	LeaderboardPage leaderboardPanel;
 
 	// Constructor for GameFrame
 	public GameFrame() {
@@ -29,6 +29,14 @@ public class GameFrame extends JFrame {
 		this.setResizable(false); // Disable resizing
 		this.setBackground(Color.white); // Set background color
 		this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // Close application on window close
+		this.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosing(WindowEvent e) {
+				if (gamePanel != null) {
+					gamePanel.shutdown(); // End the game loop and close its files before exiting
+				}
+			}
+		});
 		this.setSize(GamePanel.GAME_WIDTH, GamePanel.GAME_HEIGHT); // Set the window size
 
 		createStartPanel(); // Initialize the start panel
@@ -36,16 +44,17 @@ public class GameFrame extends JFrame {
 		this.add(startPanel); // Add the start panel to the frame
 		this.setLocationRelativeTo(null); // Center the window on the screen
 		this.setVisible(true); // Make the window visible
-		GamePanel.playMenu(); // Play the menu music
+		BackgroundMusic.play(BackgroundMusic.MENU); // Play the menu music without loading the game panel yet
 	}
 
 	// Method to create the start panel
-	void createStartPanel() {
+	private void createStartPanel() {
 		startPanel = new JPanel() {
 			@Override
 			protected void paintComponent(Graphics g) {
 				super.paintComponent(g);
 				drawStartScreen(g); // Custom method to draw the start screen
+				StartupTimer.framePainted();
 			}
 		};
 
@@ -60,22 +69,40 @@ public class GameFrame extends JFrame {
 		startPanel.add(titleLabel); // Add title label to the start panel
 
 		// Create play button
-		playButton = createButton("Play", 240, 80, 400);
+		playButton = createButton("Play", 240, 80, 380);
 		
 		//remove textbox highlight
 		playButton.setFocusable(false);
 		
-		playButton.addActionListener(e -> startGame()); // Start game on button click
+		playButton.addActionListener(e -> startGame(GamePanel.CPU_PLAYER)); // Two players unless -Dpong.cpu is set
 		startPanel.add(playButton); // Add play button to the start panel
 
+		// Create "Play vs CPU" button, the computer plays the right paddle
+		cpuButton = createButton("Play vs CPU", 240, 80, 470);
+
+		//remove textbox highlight
+		cpuButton.setFocusable(false);
+
+		cpuButton.addActionListener(e -> startGame(2)); // Start a single player game on button click
+		startPanel.add(cpuButton); // Add the single player button to the start panel
+
 		// Create "More Info" button
-		moreInfoButton = createButton("More Info", 240, 80, 500);
+		moreInfoButton = createButton("More Info", 240, 80, 560);
 		
 		//remove textbox highlight
 		moreInfoButton.setFocusable(false);
 		
 		moreInfoButton.addActionListener(e -> openMoreInfoPage()); // Open more info page on button click
 		startPanel.add(moreInfoButton); // Add more info button to the start panel
+
+		// Create "Leaderboard" button
+		leaderboardButton = createButton("Leaderboard", 240, 80, 650);
+
+		//remove textbox highlight
+		leaderboardButton.setFocusable(false);
+
+		leaderboardButton.addActionListener(e -> openLeaderboardPage()); // Open leaderboard on button click
+		startPanel.add(leaderboardButton); // Add leaderboard button to the start panel
 	}
 
 	// Method to create a button with specified text, size, and position
@@ -84,20 +111,23 @@ public class GameFrame extends JFrame {
 		button.setFont(new Font("Arial", Font.PLAIN, 24)); // Set font size and style
 		button.setBounds((GamePanel.GAME_WIDTH - width) / 2, y, width, height); // Set position and size of the button
 		button.setBorder(BorderFactory.createLineBorder(Color.BLACK)); // Set black border
-		button.addActionListener(e -> playSound("Music/Click.wav")); // Play click sound on button click
+		button.addActionListener(e -> SoundEffects.play(SoundEffects.CLICK)); // Play click sound on button click
 		return button; // Return the created button
 	}
 
-	// Method to start the game
-	private void startGame() {
+	// Method to start the game, with the computer playing the given paddle (0 for two players)
+	private void startGame(int cpuPlayer) {
 		remove(startPanel); // Remove the start panel
-		gamePanel = new GamePanel(); // Create a new game panel
+		if (gamePanel == null) {
+			gamePanel = new GamePanel(cpuPlayer); // Create the game panel the first time, its game loop starts running
+		} else {
+			gamePanel.newGame(cpuPlayer); // Reuse the game panel and wake its game loop
+		}
 		this.add(gamePanel); // Add the game panel to the frame
 		revalidate(); // Refresh the frame
 		gamePanel.requestFocusInWindow(); // Set focus on the game panel
 
-		GamePanel.stopMenu(); // Stop the menu music
-		GamePanel.playGame(); // Start the game music
+		GamePanel.playGame(); // Fade from the menu music to the game music
 	}
 
 	// Method to draw the start screen
@@ -110,33 +140,42 @@ public class GameFrame extends JFrame {
 	// Method to open the "More Info" page
 	private void openMoreInfoPage() {
 		remove(startPanel); // Remove the start panel
-		moreInfoPanel = new MoreInfoPage(this); // Create the more info panel
+		if (moreInfoPanel == null) {
+			moreInfoPanel = new MoreInfoPage(this); // Create the more info panel the first time it is opened
+		}
 		this.add(moreInfoPanel); // Add the more info panel to the frame
 		revalidate(); // Refresh the frame
 		moreInfoPanel.requestFocusInWindow(); // Set focus on the more info panel
 	}
 
+	// Method to open the leaderboard page
+	private void openLeaderboardPage() {
+		remove(startPanel); // Remove the start panel
+		if (leaderboardPanel == null) {
+			leaderboardPanel = new LeaderboardPage(this); // Create the leaderboard panel the first time it is opened
+		}
+		leaderboardPanel.refresh(); // Read the latest results
+		this.add(leaderboardPanel); // Add the leaderboard panel to the frame
+		revalidate(); // Refresh the frame
+		repaint(); // Repaint the frame
+		leaderboardPanel.requestFocusInWindow(); // Set focus on the leaderboard panel
+	}
+
 	// Method to show the start panel
 	public void showStartPanel() {
 		if (gamePanel != null) {
 			remove(gamePanel); // Remove the game panel if it exists
 		}
+		if (moreInfoPanel != null) {
+			remove(moreInfoPanel); // Remove the more info panel if it exists
+		}
+		if (leaderboardPanel != null) {
+			remove(leaderboardPanel); // Remove the leaderboard panel if it exists
+		}
 		this.add(startPanel); // Add the start panel to the frame
 		revalidate(); // Refresh the frame
 		repaint(); // Repaint the frame
 		startPanel.requestFocusInWindow(); // Set focus on the start panel
 	}
 
-	// Method to play short sound from a specified file
-	private void playSound(String soundFile) {
-		try {
-			File file = new File(soundFile); // Load the sound file
-			AudioInputStream audioStream = AudioSystem.getAudioInputStream(file); // Get audio input stream
-			Clip clip = AudioSystem.getClip(); // Get a clip for playing audio
-			clip.open(audioStream); // Open the audio clip
-			clip.start(); // Start playing the audio
-		} catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
-			e.printStackTrace(); // Print the exception if any
-		}
-	}
 }
@@ -7,39 +7,162 @@
  */
 import java.awt.*;
 import java.awt.event.*;
-import javax.sound.sampled.*;
 import javax.swing.*;
-import java.io.File;
 import java.io.IOException;
-
-public class GamePanel extends JPanel implements Runnable, KeyListener {
-	// Constants for game dimensions and initial ball velocity
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+public class GamePanel extends JPanel implements GameEngine.Game, KeyListener {
+	// Constants for game dimensions
 	public static final int GAME_WIDTH = 1280;
 	public static final int GAME_HEIGHT = 780;
-	public static final int BALL_INITIAL_VELOCITY = 9;
 	public static final String START_MESSAGE = "Click SPACE to Serve";
-
-	// Thread for running the game loop
-	private Thread gameThread;
-	// Off-screen image for double buffering
+	// Game loop rate and the number of ticks that may be caught up after a stall
+	public static final int TICK_RATE = Integer.getInteger("pong.tickRate", 60);
+	public static final int MAX_CATCH_UP_TICKS = Integer.getInteger("pong.maxCatchUpTicks", 5);
+	// Frame rate of the renderer, the refresh rate of the screen unless set
+	public static final int RENDER_RATE = Integer.getInteger("pong.renderRate", 0);
+	// Sleep while nothing on screen can change and draw fewer frames in the background, unless turned
+	// off with -Dpong.power=false, and the frame rate used while the window does not have focus
+	private static final boolean POWER_SAVING = !"false".equals(System.getProperty("pong.power"));
+	public static final int BACKGROUND_RENDER_RATE = Integer.getInteger("pong.backgroundRate", 15);
+	// Print the scheduler statistics to the console once per second when set
+	private static final boolean PRINT_STATS = Boolean.getBoolean("pong.stats");
+	// Use the old render path that creates a new off-screen image every frame when set
+	private static final boolean PASSIVE_RENDERING = "passive".equals(System.getProperty("pong.render"));
+	// Repaint only the regions that changed each frame, unless turned off with -Dpong.damage=false
+	private static final boolean DAMAGE_TRACKING = !"false".equals(System.getProperty("pong.damage"));
+	// Objects whose bounds are tracked for damage
+	private static final int DAMAGE_BALL = 0, DAMAGE_PADEL1 = 1, DAMAGE_PADEL2 = 2, DAMAGE_SCORE1 = 3,
+			DAMAGE_SCORE2 = 4, DAMAGE_PARTICLES = 5;
+	// Directory to record every match into, a replay file to play back instead of the keyboard,
+	// and the tick playback starts at
+	private static final String RECORD_DIRECTORY = System.getProperty("pong.record");
+	private static final String PLAYBACK_FILE = System.getProperty("pong.playback");
+	private static final long PLAYBACK_START = Long.getLong("pong.playback.start", 0);
+	// Address of the other player for network play (host:port), this machine's port and player,
+	// the ticks between reading a key and applying it, and simulated latency, jitter and loss
+	private static final String NET_PEER = System.getProperty("pong.net.peer");
+	private static final int NET_PORT = Integer.getInteger("pong.net.port", 7777);
+	private static final int NET_PLAYER = Integer.getInteger("pong.net.player", 1);
+	private static final int NET_DELAY = Integer.getInteger("pong.net.delay", 2);
+	private static final double NET_LATENCY = Double.parseDouble(System.getProperty("pong.net.latency", "0"));
+	private static final double NET_JITTER = Double.parseDouble(System.getProperty("pong.net.jitter", "0"));
+	private static final double NET_LOSS = Double.parseDouble(System.getProperty("pong.net.loss", "0"));
+	// Paddle played by the computer when the game is started without choosing (1 or 2, 0 for none)
+	// and how well it plays
+	static final int CPU_PLAYER = Integer.getInteger("pong.cpu", 0);
+	private static final String CPU_LEVEL = System.getProperty("pong.cpu.level", "NORMAL");
+	// Number of extra balls flying around in chaos mode, 0 to play with one ball
+	private static final int CHAOS_BALLS = Integer.getInteger("pong.chaos", 0);
+	// Most particles alive at once for the hit and point effects, 0 to turn them off
+	private static final int PARTICLE_BUDGET = Integer.getInteger("pong.particles", 2048);
+	// Names the results of local matches are kept under
+	private static final String PLAYER1_NAME = System.getProperty("pong.player1", "Player 1");
+	private static final String PLAYER2_NAME = System.getProperty("pong.player2", "Player 2");
+	// Port to stream the match to spectators on, 0 to not stream
+	private static final int SPECTATE_PORT = Integer.getInteger("pong.spectate.port", 0);
+	// Position of the performance overlay
+	private static final int HUD_X = 10, HUD_Y = 70;
+
+	// Engine running the game loop on its one thread, paused while the panel is off screen and
+	// until the constructor is done
+	private final GameEngine engine = new GameEngine("Game Loop", this);
+	// Scheduler that paces the frames drawn by the game loop
+	private FrameScheduler scheduler;
+	// Clock that decides how many simulation ticks run before each frame
+	private TickClock tickClock;
+	// Off-screen image for double buffering (passive render path)
 	private Image image;
-	// Graphics object for drawing on the off-screen image
+	// Graphics object for drawing on the off-screen image (passive render path)
 	private Graphics graphics;
+	// Persistent accelerated off-screen image (default render path)
+	private final BackBuffer backBuffer = new BackBuffer(GAME_WIDTH, GAME_HEIGHT);
+	private final Consumer<Graphics2D> drawer = this::draw;
+	// Regions that changed since the last frame
+	private final DamageTracker damage = new DamageTracker(this, 6);
+	// Screen state drawn in the last frame, a change redraws the whole screen
+	private boolean lastShowStartMessage = true;
+	private boolean lastGameOver = false;
+	private boolean lastShowHud = false;
+	private int lastHudVersion;
+	// Phase timings and the performance overlay
+	private final Profiler profiler = new Profiler();
+	private boolean hudVisible = Boolean.getBoolean("pong.hud");
+	// Time spent painting, whole frames and regions painted since the last report (statistics only,
+	// not synchronized)
+	private volatile long paintNanos;
+	private volatile int paintCount;
+	private volatile int regionCount;
+	// Frames published so far, only used by the thread that publishes snapshots
+	private long publishedFrames;
+	// Frame being painted and its paint, draw and particle draw times so far over all its regions,
+	// only used by the EDT
+	private long paintedFrame = -1;
+	private long framePaintNanos;
+	private long frameDrawNanos;
+	private long frameParticleNanos;
+	private boolean frameHasParticles;
+	private long lastReport;
+	// Whether the clocks run at the background frame rate, and whether the loop was just (re)started
+	private boolean background;
+	private boolean justResumed;
+	// Wakes the game loop when the window is shown or activated again
+	private final WindowAdapter windowWaker = new WindowAdapter() {
+		@Override
+		public void windowActivated(WindowEvent e) {
+			engine.wake();
+		}
 
-	// Game components: ball, paddles, and score
-	private PlayerBall ball;
-	private Padel padel1;
-	private Padel padel2;
-	private Score score;
-
-	// Flags to control game state
-	private boolean gameStarted = false;
-	private boolean showStartMessage = true;
-	private boolean gameOver = false;
-	// Message to display the winner
-	private String winnerMessage = "";
-	// Last player who won a point
-	private int lastWinningPlayer; // 1 for player 1, 2 for player 2
+		@Override
+		public void windowDeiconified(WindowEvent e) {
+			engine.wake();
+		}
+	};
+
+	// Snapshots of the game state handed from the game thread to the EDT
+	private final SnapshotBuffer snapshots = new SnapshotBuffer();
+	// Snapshot being painted, only used by the EDT
+	private GameSnapshot painting;
+	// Keys held down and restart requests from the EDT, sampled by the game thread at the start of a tick
+	private final InputState input = new InputState();
+	private final AtomicBoolean restartRequested = new AtomicBoolean(false);
+	// Optional input latency measurement, set by InputLatencyHarness
+	private volatile InputLatencyProbe latencyProbe;
+	// Paddle 1 position in the last painted frame, only used by the EDT for the latency probe
+	private int lastPaintedPadel1Y;
+
+	// The match being played, only touched by the game thread
+	private final Match match;
+	// Replay file the match is recorded into, or played back from
+	private ReplayFile recorder;
+	private ReplayFile playback;
+	// Connection to the other player in network play
+	private NetPlay net;
+	// Computer player for one paddle in a single player game, and the paddle it plays from the next
+	// restart on (0 for none), chosen on the start screen
+	private CpuPlayer cpu;
+	private volatile int cpuPlayer;
+	// Extra balls of the chaos mode
+	private ChaosBalls chaos;
+	// Sparks and bursts, only touched by the game thread (except drawn), and the area they covered
+	// in the last frame
+	private final Particles particles = PARTICLE_BUDGET > 0 ? new Particles(PARTICLE_BUDGET, System.nanoTime()) : null;
+	private final int[] particleBounds = new int[4];
+	// Winner of each point of the match being played and the tick its first serve happened at (-1
+	// before it), kept for the match log
+	private final byte[] pointWinners = new byte[255]; // The most points a log record holds
+	private int pointCount;
+	private long matchStartTick = -1;
+	// Server streaming every match to spectators, shared by all game panels
+	private static SpectatorServer spectators;
+	// Pre-rendered serve message and winner messages
+	private static final TextCache.Text START_TEXT = new TextCache.Text(START_MESSAGE);
+	private static final TextCache.Text[] WINNER_TEXT = { null, new TextCache.Text("Player 1 has won!"),
+			new TextCache.Text("Player 2 has won!") };
 
 	// Buttons for play again and main menu
 	private JButton playAgainButton;
@@ -47,18 +170,90 @@ public class GamePanel extends JPanel implements Runnable, KeyListener {
 	// Panel to hold buttons
 	private JPanel buttonPanel;
 
-	// Static clips for background music
-	static Clip menu, game;
+	// Sounds and effects of what happens in the match, played straight away
+	private final MatchListener effects = new MatchListener() {
+		@Override
+		public void served() {
+			SoundEffects.play(SoundEffects.SERVE); // Play serve sound
+		}
 
-	// Constructor to initialize game panel
+		@Override
+		public void bounced(int player) {
+			if (player != 0) {
+				SoundEffects.play(SoundEffects.PING); // Play ping sound on a paddle hit
+			}
+			SweptCollision hit = match.getCollision();
+			int last = hit.getContactCount() - 1;
+			if (particles != null && last >= 0) {
+				// Sparks fly off where the ball touched, along its new path
+				double direction = Math.atan2(match.ball.yVelocity, match.ball.xVelocity);
+				if (player == 0) {
+					particles.emit(Particles.WALL, hit.getContactX(last), hit.getContactY(last), 10, direction,
+							Math.PI * 0.8, 250, 0.35);
+				} else {
+					particles.emit(Particles.PADEL, hit.getContactX(last), hit.getContactY(last), 30, direction,
+							Math.PI * 0.6, 480, 0.5);
+				}
+			}
+		}
+
+		@Override
+		public void scored(int player) {
+			SoundEffects.play(SoundEffects.LOST); // Play lost sound
+			if (particles != null) {
+				// A burst all around the ball where it left the court
+				double radius = PlayerBall.BALL_DIAMETER / 2.0;
+				particles.emit(Particles.POINT, match.ball.posX + radius, match.ball.posY + radius, 150, 0,
+						2 * Math.PI, 650, 0.9);
+			}
+		}
+	};
+	// Serves, points and wins kept for the match log and the music, in network play only once they
+	// can no longer be rolled back
+	private final MatchListener results = new MatchListener() {
+		@Override
+		public void served() {
+			if (matchStartTick < 0) {
+				matchStartTick = match.tick; // First serve of the match
+			}
+		}
+
+		@Override
+		public void scored(int player) {
+			if (pointCount < pointWinners.length) {
+				pointWinners[pointCount++] = (byte) player;
+			}
+		}
+
+		@Override
+		public void won(int player) {
+			playMenu(); // Fade from the game music to the menu music
+			logResult();
+		}
+	};
+
+	// Constructor to initialize game panel, with the paddle the computer plays from the system property
 	public GamePanel() {
+		this(CPU_PLAYER);
+	}
+
+	// Constructor to initialize game panel with the paddle the computer plays (1 or 2, 0 for none)
+	public GamePanel(int cpuPlayer) {
+		this.cpuPlayer = cpuPlayer;
 		setLayout(null); // Use absolute positioning for all components
-		score = new Score(); // Initialize score
-		ball = new PlayerBall(GAME_WIDTH / 2 - PlayerBall.BALL_DIAMETER / 2,
-				GAME_HEIGHT / 2 - PlayerBall.BALL_DIAMETER / 2); // Initialize ball
-		padel1 = new Padel(0, (GAME_HEIGHT / 2) - Padel.PADEL_WIDTH / 2, 'w', 's'); // Initialize paddle 1
-		padel2 = new Padel(GAME_WIDTH - 26, (GAME_HEIGHT / 2) - Padel.PADEL_WIDTH / 2, 'i', 'k'); // Initialize
-																											// paddle 2
+		match = createMatch(); // Initialize ball, paddles and score
+		if (net != null) {
+			net.setListeners(effects, results); // Results only once the other player confirmed their tick
+		} else {
+			match.setListener(MatchListener.both(effects, results));
+		}
+		match.setProfiler(profiler);
+		chooseCpu(cpuPlayer);
+		if (CHAOS_BALLS > 0 && playback == null && net == null) {
+			chaos = new ChaosBalls(CHAOS_BALLS, System.nanoTime(), true);
+			chaos.spawn(CHAOS_BALLS);
+		}
+		startSpectatorServer();
 		playAgainButton = new JButton("Play Again"); // Initialize play again button
 		mainMenuButton = new JButton("Main Menu"); // Initialize main menu button
 
@@ -66,12 +261,14 @@ public class GamePanel extends JPanel implements Runnable, KeyListener {
 		mainMenuButton.setFont(new Font("Arial", Font.PLAIN, 24)); // Set font for main menu button
 
 		playAgainButton.addActionListener(e -> {
-			playSound("Music/Click.wav"); // Play sound on button click
-			restartGame(); // Restart the game
+			SoundEffects.play(SoundEffects.CLICK); // Play sound on button click
+			playGame(); // Fade from the menu music to the game music
+			restartRequested.set(true); // Let the game thread restart the game
+			engine.wake(); // The game over screen may have put the game loop to sleep
 		});
 
 		mainMenuButton.addActionListener(e -> {
-			playSound("Music/Click.wav"); // Play sound on button click
+			SoundEffects.play(SoundEffects.CLICK); // Play sound on button click
 			returnToMainMenu(); // Return to main menu
 		});
 
@@ -91,303 +288,573 @@ public class GamePanel extends JPanel implements Runnable, KeyListener {
 		setPreferredSize(new Dimension(GAME_WIDTH, GAME_HEIGHT)); // Set preferred size
 		setFocusable(true); // Make the panel focusable
 		addKeyListener(this); // Add key listener to the panel
+		addFocusListener(new FocusAdapter() {
+			@Override
+			public void focusLost(FocusEvent e) {
+				input.clear(); // Keys released while another window has focus never reach us
+			}
+
+			@Override
+			public void focusGained(FocusEvent e) {
+				engine.wake(); // Go back to the full frame rate
+			}
+		});
+
+		publishSnapshot(); // Give the EDT a first frame to draw
+
+		engine.resume(); // Start the game loop
+	}
+
+	// Method to start a new game on this panel and run the game loop again, with the computer playing
+	// the given paddle (0 for none)
+	public void newGame(int cpuPlayer) {
+		this.cpuPlayer = cpuPlayer; // Taken over by the game thread together with the restart
+		input.clear(); // Forget keys still held from the last visit
+		restartRequested.set(true); // Let the game thread restart the game
+		engine.resume();
+	}
 
-		gameThread = new Thread(this); // Create and start game thread
-		gameThread.start();
-		lastWinningPlayer = (int) (Math.random() * 2 + 1);
-		; // Initialize last winning player randomly with either player 1 or 2
+	// Method to stop the game loop until the panel is shown again
+	public void pause() {
+		engine.pause();
+	}
+
+	// Method to end the game loop and close the replay file and network connection
+	public void shutdown() {
+		try {
+			engine.shutdown();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		if (PRINT_STATS) {
+			System.out.println(engine.report());
+		}
+		profiler.close(); // Remove the periodic Flight Recorder event
+		if (recorder != null) {
+			recorder.close();
+			recorder = null;
+		}
+		if (net != null) {
+			try {
+				net.close();
+			} catch (IOException ignored) {
+			}
+			net = null;
+		}
 	}
 
 	@Override
 	// method to double buffer
 	public void paintComponent(Graphics g) {
 		super.paintComponent(g); // Call superclass method
-		image = createImage(GAME_WIDTH, GAME_HEIGHT); // Create off-screen image
-		graphics = image.getGraphics(); // Get graphics context for off-screen image
-		draw(graphics); // Draw game elements
-		g.drawImage(image, 0, 0, this); // Draw off-screen image to screen
+		long paintStart = System.nanoTime();
+		painting = snapshots.latest(); // Newest state published by the game thread
+		if (painting.frame != paintedFrame) {
+			// First region of a new frame, the frame before it is complete (damage tracking paints
+			// every damaged region of one frame with its own call)
+			if (paintedFrame >= 0) {
+				framePainted();
+			}
+			paintedFrame = painting.frame;
+			paintCount++;
+		}
+		playAgainButton.setVisible(painting.gameOver); // Show the buttons only on the game over screen
+		mainMenuButton.setVisible(painting.gameOver);
+
+		if (PASSIVE_RENDERING) {
+			image = createImage(GAME_WIDTH, GAME_HEIGHT); // Create off-screen image
+			graphics = image.getGraphics(); // Get graphics context for off-screen image
+			draw(graphics); // Draw game elements
+			graphics.dispose();
+			g.drawImage(image, 0, 0, this); // Draw off-screen image to screen
+		} else {
+			backBuffer.render(this, g, getBackground(), drawer); // Draw through the persistent back buffer
+		}
+
+		long regionNanos = System.nanoTime() - paintStart;
+		profiler.record(Profiler.REGION, regionNanos);
+		framePaintNanos += regionNanos;
+		paintNanos += regionNanos;
+		regionCount++;
+
+		InputLatencyProbe probe = latencyProbe;
+		if (probe != null && painting.padel1Y != lastPaintedPadel1Y) {
+			probe.framePainted(); // The moved paddle is on screen
+		}
+		lastPaintedPadel1Y = painting.padel1Y;
+	}
+
+	// Method to report the paint, draw and particle times of the frame painted last, summed over all
+	// of its regions
+	private void framePainted() {
+		profiler.record(Profiler.PAINT, framePaintNanos);
+		profiler.record(Profiler.DRAW, frameDrawNanos);
+		if (frameHasParticles) {
+			profiler.record(Profiler.FX_DRAW, frameParticleNanos);
+		}
+		if (particles != null) {
+			particles.drawn(frameParticleNanos); // Lets the particle budget follow the cost
+		}
+		framePaintNanos = 0;
+		frameDrawNanos = 0;
+		frameParticleNanos = 0;
+		frameHasParticles = false;
+	}
+
+	// Method to create the match, played back from a replay file or recorded into one if asked to
+	private Match createMatch() {
+		if (PLAYBACK_FILE != null) {
+			try {
+				playback = ReplayFile.open(Paths.get(PLAYBACK_FILE));
+				Match replayed = playback.newMatch();
+				playback.seek(replayed, PLAYBACK_START); // Fast-forward to the first tick to show
+				return replayed;
+			} catch (IOException | IllegalArgumentException e) {
+				e.printStackTrace(); // Play normally if the replay cannot be read
+				playback = null;
+			}
+		}
+
+		long seed = Long.getLong("pong.seed", System.nanoTime());
+		Match created = new Match(seed, TICK_RATE);
+		if (NET_PEER != null) {
+			try {
+				NetLink link = new NetLink(NET_PORT, NetLink.parseAddress(NET_PEER), NET_LATENCY, NET_JITTER,
+						NET_LOSS);
+				net = new NetPlay(created, link, NET_PLAYER, NET_DELAY, TICK_RATE);
+				return created; // Inputs are not recorded in network play, they can be rolled back
+			} catch (IOException | IllegalArgumentException e) {
+				e.printStackTrace(); // Play on this keyboard only
+			}
+		}
+		if (RECORD_DIRECTORY != null) {
+			Path file = Paths.get(RECORD_DIRECTORY, "replay-" + System.currentTimeMillis() + ".pong");
+			try {
+				recorder = ReplayFile.create(file, seed, TICK_RATE);
+			} catch (IOException e) {
+				e.printStackTrace(); // Play without recording
+			}
+		}
+		return created;
+	}
+
+	// Method to start streaming to spectators the first time a game starts, if asked to
+	private static synchronized void startSpectatorServer() {
+		if (SPECTATE_PORT > 0 && spectators == null) {
+			try {
+				spectators = new SpectatorServer(SPECTATE_PORT, Runtime.getRuntime().availableProcessors());
+			} catch (IOException e) {
+				e.printStackTrace(); // Play without spectators
+			}
+		}
+	}
+
+	// Method to measure input latency with the given probe
+	public void setLatencyProbe(InputLatencyProbe probe) {
+		latencyProbe = probe;
+	}
+
+	@Override
+	// method to listen to the window the panel is shown in, to wake up when it comes back
+	public void addNotify() {
+		super.addNotify();
+		Window window = SwingUtilities.getWindowAncestor(this);
+		if (window != null) {
+			window.addWindowListener(windowWaker);
+		}
+	}
+
+	@Override
+	// method to release the back buffer when the panel leaves the screen
+	public void removeNotify() {
+		Window window = SwingUtilities.getWindowAncestor(this);
+		if (window != null) {
+			window.removeWindowListener(windowWaker);
+		}
+		backBuffer.flush();
+		super.removeNotify();
 	}
 
-	// Method to draw game elements
+	// Method to draw game elements from the snapshot being painted
 	private void draw(Graphics g) {
-		ball.draw(g); // Draw ball
-		padel1.draw(g); // Draw paddle 1
-		padel2.draw(g); // Draw paddle 2
+		long drawStart = System.nanoTime();
+		GameSnapshot state = painting;
+		PlayerBall.draw(g, state.ballX, state.ballY); // Draw ball
+		Padel.draw(g, state.padel1X, state.padel1Y); // Draw paddle 1
+		Padel.draw(g, state.padel2X, state.padel2Y); // Draw paddle 2
 		
 		//display serve message
-		if (showStartMessage && !gameOver) {
-			// change color and font
-			g.setColor(Color.BLACK);
-			g.setFont(new Font("Arial", Font.BOLD, 36));
-			FontMetrics fm = g.getFontMetrics();
-
+		if (state.showStartMessage && !state.gameOver) {
 			// Draw start message
-			g.drawString(START_MESSAGE, (GAME_WIDTH - fm.stringWidth(START_MESSAGE)) / 2, GAME_HEIGHT - 50);
+			START_TEXT.drawCentered(g, GAME_WIDTH, GAME_HEIGHT - 50);
 
 			// Draw arrow indicating serve direction
-			if (lastWinningPlayer == 1) {
+			if (state.lastWinningPlayer == 1) {
 				drawServeArrow(g, true); // Serve towards player 2
-			} else if (lastWinningPlayer == 2) {
+			} else if (state.lastWinningPlayer == 2) {
 				drawServeArrow(g, false); // Serve towards player 1
 			}
 			//display winner message
-		} else if (gameOver) {
-			// change color and font
-			g.setColor(Color.BLACK);
-			g.setFont(new Font("Arial", Font.BOLD, 36));
-			FontMetrics fm = g.getFontMetrics();
-			
+		} else if (state.gameOver) {
 			//draw winner message
-			g.drawString(winnerMessage, (GAME_WIDTH - fm.stringWidth(winnerMessage)) / 2, GAME_HEIGHT / 2 - 50); 
-			
-			playAgainButton.setVisible(true); // Show play again button
-			mainMenuButton.setVisible(true); // Show main menu button
+			if (state.winnerText != null) {
+				state.winnerText.drawCentered(g, GAME_WIDTH, GAME_HEIGHT / 2 - 50);
+			}
+		}
+
+		for (int i = 0; i < state.chaosCount; i++) {
+			PlayerBall.draw(g, state.chaosX[i], state.chaosY[i]); // Draw the chaos mode balls
+		}
+		if (particles != null && state.particleCount > 0) {
+			long particlesStart = System.nanoTime();
+			Particles.draw(g, state.particleX, state.particleY, state.particleBuckets); // Draw the sparks in batches
+			frameParticleNanos += System.nanoTime() - particlesStart; // Reported once the frame is painted
+			frameHasParticles = true;
 		}
 
-		score.draw(g); // Draw score
+		Score.draw(g, state.player1Score, state.player2Score); // Draw score
+		frameDrawNanos += System.nanoTime() - drawStart;
+
+		if (state.showHud) {
+			profiler.drawHud(g, HUD_X, HUD_Y); // Draw the performance overlay
+		}
 	}
 
-	// Method to move game elements
-	private void move() {
-		if (gameStarted && !gameOver) {
-			ball.move(); // Move ball if game started and not over
+	// Method to fill in the next snapshot from the game state and hand it to the EDT
+	private void publishSnapshot() {
+		GameSnapshot state = snapshots.back();
+		state.frame = ++publishedFrames;
+		state.ballX = match.ball.drawX;
+		state.ballY = match.ball.drawY;
+		state.padel1X = match.padel1.drawX;
+		state.padel1Y = match.padel1.drawY;
+		state.padel2X = match.padel2.drawX;
+		state.padel2Y = match.padel2.drawY;
+		state.player1Score = match.score.player1Score;
+		state.player2Score = match.score.player2Score;
+		state.showStartMessage = match.showStartMessage;
+		state.gameOver = match.gameOver;
+		state.lastWinningPlayer = match.lastWinningPlayer;
+		state.winnerText = WINNER_TEXT[match.winner];
+		state.showHud = hudVisible;
+		if (chaos != null) {
+			if (state.chaosX.length < chaos.getCount()) {
+				state.chaosX = new int[chaos.getCount()];
+				state.chaosY = new int[chaos.getCount()];
+			}
+			for (int i = 0; i < chaos.getCount(); i++) {
+				state.chaosX[i] = (int) Math.round(chaos.getX(i));
+				state.chaosY[i] = (int) Math.round(chaos.getY(i));
+			}
+			state.chaosCount = chaos.getCount();
+		}
+		if (particles != null) {
+			if (state.particleX.length < particles.getCapacity()) {
+				state.particleX = new int[particles.getCapacity()]; // Once per snapshot, the pool never grows
+				state.particleY = new int[particles.getCapacity()];
+			}
+			state.particleCount = particles.copyTo(state.particleX, state.particleY, state.particleBuckets,
+					particleBounds);
 		}
-		padel1.move(); // Move paddle 1
-		padel2.move(); // Move paddle 2
+		snapshots.publish();
 	}
 
-	// Method to check collisions
-	private void checkCollision() {
-		//if ball hits the top edge
-		if (ball.y <= 0) {
-			ball.y = 0; //set the balls position to the top
-			ball.yVelocity = -ball.yVelocity; // Reverse ball's Y velocity at the top
+	// Method to add the match that was just won to the match log, written in the background
+	private void logResult() {
+		String player1 = cpu != null && cpu.getPlayer() == 1 ? "CPU " + CPU_LEVEL.toUpperCase() : PLAYER1_NAME;
+		String player2 = cpu != null && cpu.getPlayer() == 2 ? "CPU " + CPU_LEVEL.toUpperCase() : PLAYER2_NAME;
+		int player1Points = 0;
+		for (int i = 0; i < pointCount; i++) {
+			player1Points += pointWinners[i] == 1 ? 1 : 0; // In network play the match may already be ahead
 		}
-		//if ball hits bottom edge
-		if (ball.y + PlayerBall.BALL_DIAMETER + 28 >= GAME_HEIGHT) {
-			ball.y = GAME_HEIGHT - PlayerBall.BALL_DIAMETER - 28; // Ensure ball doesn't go beyond the bottom by resetting position
-			ball.yVelocity = -ball.yVelocity; // Reverse ball's Y velocity at the bottom
+		int score1 = player1Points;
+		int score2 = pointCount - player1Points;
+		int durationMillis = (int) ((match.tick - Math.max(matchStartTick, 0)) * match.getTickSeconds() * 1000);
+		byte[] points = Arrays.copyOf(pointWinners, pointCount);
+		pointCount = 0;
+		matchStartTick = -1;
+		if (playback != null) {
+			return; // A replayed match was already logged when it was played
 		}
-		//if the ball hits player 1 padel
-		if (ball.intersects(padel1)) {
-			ball.xVelocity = -ball.xVelocity; // Reverse ball's X velocity on paddle 1 hit
-			ball.yVelocity += padel1.yVelocity / 5 + (-1 + (int) (Math.random() * (3))); // Adjust ball's Y velocity
-			playSound("Music/Ping.wav"); // Play ping sound
+		MatchLog.shared().thenAcceptAsync(log -> {
+			try {
+				if (log != null) {
+					log.append(player1, player2, score1, score2, durationMillis, points, points.length);
+				}
+			} catch (IOException | IllegalArgumentException e) {
+				e.printStackTrace(); // Carry on without this result
+			}
+		});
+	}
+
+	// Method to sample the keyboard and turn it into the input bits of this tick
+	private int sampleInput() {
+		input.sample(); // Take one sample of the keyboard for this tick
+		if (input.wasPressed(KeyBindings.HUD)) {
+			hudVisible = !hudVisible; // Show or hide the performance overlay
 		}
-		//if the ball hits player 2 padel
-		if (ball.intersects(padel2)) {
-			ball.xVelocity = -ball.xVelocity; // Reverse ball's X velocity on paddle 2 hit
-			ball.yVelocity += padel2.yVelocity / 5 + (-1 + (int) (Math.random() * (3))); // Adjust ball's Y velocity
-			playSound("Music/Ping.wav"); // Play ping sound
+		if (playback != null) {
+			return playback.inputAt(match.tick); // Replay the recorded input instead
 		}
-		
-		//if the ball reaches the left side of the screen
-		if (ball.x <= 0) {
-			score.player2Score++; // Increment player 2 score
-			lastWinningPlayer = 1; // Update last winning player
-			playSound("Music/Lost.wav"); // Play lost sound
-			checkWinCondition(); // Check if game is won
-			resetGame(); // Reset game
+
+		int inputs = 0;
+		if (restartRequested.getAndSet(false)) {
+			inputs |= Match.RESTART; // Restart the game
+			chooseCpu(cpuPlayer); // The start screen may have chosen another opponent
+		}
+		if (input.wasPressed(KeyBindings.SERVE)) {
+			inputs |= Match.SERVE; // Serve the ball
+		}
+		if (input.isDown(KeyBindings.PLAYER1_UP)) {
+			inputs |= Match.P1_UP;
+		}
+		if (input.isDown(KeyBindings.PLAYER1_DOWN)) {
+			inputs |= Match.P1_DOWN;
 		}
-		//if the ball reaches the right side of the screen
-		if (ball.x + PlayerBall.BALL_DIAMETER >= GAME_WIDTH) {
-			score.player1Score++; // Increment player 1 score
-			lastWinningPlayer = 2; // Update last winning player
-			playSound("Music/Lost.wav"); // Play lost sound
-			checkWinCondition(); // Check if game is won
-			resetGame(); // Reset game
+		if (input.isDown(KeyBindings.PLAYER2_UP)) {
+			inputs |= Match.P2_UP;
 		}
+		if (input.isDown(KeyBindings.PLAYER2_DOWN)) {
+			inputs |= Match.P2_DOWN;
+		}
+		if (cpu != null) {
+			inputs = (inputs & ~cpu.getInputMask()) | cpu.inputs(match); // The computer steers its own paddle
+		}
+		return inputs;
 	}
 
-	@Override
-	//method which makes the game continue running without end
-	public void run() {
-		long lastTime = System.nanoTime(); // Get initial time
-		double amountOfTicks = 60.0; // Number of ticks per second
-		double ns = 1000000000 / amountOfTicks; // Nanoseconds per tick
-		double delta = 0;
-
-		while (true) { // Game loop
-			long now = System.nanoTime(); // Get current time
-			delta += (now - lastTime) / ns; // Calculate time difference
-			lastTime = now;
-
-			if (delta >= 1) {
-				move(); // Move game elements
-				if (gameStarted && !gameOver) {
-					checkCollision(); // Check collisions if game started and not over
-				}
-				repaint(); // Repaint the game panel
-				delta--;
-			}
+	// Method to let the computer play a paddle (1 or 2) or neither (0), unless the match is replayed
+	// or played over the network
+	private void chooseCpu(int player) {
+		if (player == 0 || playback != null || net != null) {
+			cpu = null;
+		} else if (cpu == null || cpu.getPlayer() != player) {
+			cpu = new CpuPlayer(player, CpuPlayer.Level.valueOf(CPU_LEVEL.toUpperCase()), System.nanoTime());
 		}
 	}
 
 	@Override
-	//method to check if a key is pressed
-	public void keyPressed(KeyEvent e) {
-		if (e.getKeyCode() == KeyEvent.VK_SPACE) {
-			//if the game has not started and the game is not yet over
-			if (!gameStarted && !gameOver) {
-				// Adjust ball serve direction based on the last winning player
-				if (lastWinningPlayer == 1) {
-					ball.xVelocity = -BALL_INITIAL_VELOCITY; // Serve ball to the left
-				} else if (lastWinningPlayer == 2) {
-					ball.xVelocity = BALL_INITIAL_VELOCITY; // Serve ball to the right
+	// method to start the clocks of the game loop, so the time spent paused is not caught up
+	public void resumed() {
+		startClocks();
+		tickClock.restartWithTickDue(); // Run the first tick straight away, it may answer the key that woke the loop
+		justResumed = true;
+	}
+
+	// Method to create the frame scheduler and tick clock for the current frame rate
+	private void startClocks() {
+		int renderRate = background ? BACKGROUND_RENDER_RATE : RENDER_RATE > 0 ? RENDER_RATE : displayRefreshRate();
+		scheduler = new FrameScheduler(renderRate, 1); // Never draw frames back to back
+		// Run enough ticks per frame for the tick rate, plus a few to catch up after a stall
+		int tickRate = playback != null ? playback.getTickRate() : TICK_RATE; // Replays run at their recorded rate
+		tickClock = new TickClock(tickRate, (tickRate + renderRate - 1) / renderRate + MAX_CATCH_UP_TICKS);
+		lastReport = System.nanoTime();
+	}
+
+	@Override
+	//method which runs one frame of the game loop
+	public void frame() {
+		long wakeRequests = engine.getWakeRequests(); // Before the input is sampled, so no key is missed
+		if (justResumed) {
+			justResumed = false; // Do not wait for the next frame after waking up
+		} else {
+			scheduler.awaitFrame(); // Sleep until the next frame is due
+		}
+		int ticks = tickClock.advance(); // Number of simulation ticks due since the last frame
+		for (int i = 0; i < ticks; i++) {
+			int inputs = sampleInput(); // Key presses and button clicks for this tick
+			if (net != null) {
+				advanceNetwork(inputs);
+			} else {
+				if (recorder != null && !recorder.record(match, inputs)) {
+					System.err.println("Replay file is full, recording stopped");
+					recorder.close();
+					recorder = null;
+				}
+				match.tick(inputs); // Move game elements and check collisions
+				if (chaos != null && match.gameStarted && !match.gameOver) {
+					chaos.tick(match.getTickSeconds(), match.padel1, match.padel2); // Move the chaos mode balls
 				}
+			}
+			if (particles != null) {
+				long particlesStart = System.nanoTime();
+				particles.update(match.getTickSeconds()); // Move the sparks
+				profiler.end(Profiler.FX_TICK, particlesStart);
+			}
+			if (spectators != null) {
+				spectators.publish(match); // Stream the new state, never waits for spectators
+			}
 
-				playSound("Music/Serve.wav"); // Play serve sound
-				gameStarted = true; // Set game started flag
-				showStartMessage = false; // Hide start message
+			InputLatencyProbe probe = latencyProbe;
+			if (probe != null && match.padel1.posY != match.padel1.lastY) {
+				probe.paddleMoved(); // Paddle 1 responded to input
 			}
 		}
-		padel1.keyPressed(e); // Handle paddle 1 key press
-		padel2.keyPressed(e); // Handle paddle 2 key press
-	}
+		profiler.updateLoop(tickClock, scheduler); // Keep the overlay and accumulator drift up to date
 
-	@Override
-	//method to check if a key is released
-	public void keyReleased(KeyEvent e) {
-		padel1.keyReleased(e); // Handle paddle 1 key release
-		padel2.keyReleased(e); // Handle paddle 2 key release
-	}
+		double alpha = tickClock.alpha(); // Place the drawn objects between the last two ticks
+		match.ball.interpolate(alpha);
+		match.padel1.interpolate(alpha);
+		match.padel2.interpolate(alpha);
+		publishSnapshot(); // Hand the new frame to the EDT
 
-	@Override
-	//method not used but required for KeyListener
-	public void keyTyped(KeyEvent e) {
-		
-	}
-	// Method to play short sound clips
-	private void playSound(String soundFile) {
-		try {
-			// open theme song file
-			File file = new File(soundFile);
-			
-			 // Get audio input stream
-			AudioInputStream audioStream = AudioSystem.getAudioInputStream(file);
-			// Open and play the theme song
-			Clip clip = AudioSystem.getClip();
-			clip.open(audioStream);
-			clip.start(); // Start playing the sound
-		} catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
-			e.printStackTrace();
+		if (DAMAGE_TRACKING) {
+			repaintDamage(); // Repaint only what changed
+		} else {
+			repaint(); // Repaint the game panel
+		}
+
+		if (PRINT_STATS && System.nanoTime() - lastReport >= 1_000_000_000L) {
+			int frames = paintCount;
+			int regions = regionCount;
+			double paintMillis = frames == 0 ? 0 : paintNanos / 1e6 / frames;
+			paintNanos = 0;
+			paintCount = 0;
+			regionCount = 0;
+			// Report tick rate, frame rate, jitter and frame time
+			System.out.println(tickClock.report() + ", render loop " + scheduler.report()
+					+ String.format(", %d frames painted in %d regions, paint avg %.3f ms per frame (%s%s)", frames,
+							regions, paintMillis, PASSIVE_RENDERING ? "passive" : "back buffer",
+							DAMAGE_TRACKING ? ", damage" : "")
+					+ "\n  " + profiler.report() + (net != null ? "\n  " + net.report() : "")
+					+ (spectators != null ? "\n  " + spectators.report() : "") + (chaos != null ? "\n  " + chaos.report() : "")
+					+ (particles != null ? "\n  " + particles.report() : "")
+					+ "\n  " + engine.report());
+			lastReport = System.nanoTime();
+		}
+
+		if (POWER_SAVING) {
+			adjustPower(wakeRequests);
 		}
 	}
 
-	// Method to play menu music
-	public static void playMenu() {
-		try {
-			File file = new File("Music/MainMenu.wav"); // Open menu music file
-			AudioInputStream audio = AudioSystem.getAudioInputStream(file); // Get audio input stream
-			menu = AudioSystem.getClip(); // Get a clip for playing audio
-
-			menu.open(audio); // Open the audio clip
-			menu.addLineListener(event -> {
-				// Restart the music if it stops
-				if (event.getType() == javax.sound.sampled.LineEvent.Type.STOP) {
-					menu.setMicrosecondPosition(0);
-					menu.start();
-				}
-			});
-			menu.start(); // Start playing menu music
-		} catch (Exception e) {
-			e.printStackTrace();
+	// Method to put the game loop to sleep while nothing on screen can change, and to draw fewer
+	// frames while the window does not have focus
+	private void adjustPower(long wakeRequests) {
+		if (net != null || playback != null || spectators != null) {
+			return; // Other machines and recorded input keep the match moving
+		}
+		Window window = SwingUtilities.getWindowAncestor(this);
+		boolean hidden = window == null || !window.isShowing()
+				|| window instanceof Frame && (((Frame) window).getExtendedState() & Frame.ICONIFIED) != 0;
+		if ((hidden || isIdleScreen()) && engine.doze(wakeRequests)) {
+			return; // Sleep until a key, a click or the window wakes the loop
+		}
+		boolean unfocused = window != null && !window.isFocused();
+		if (unfocused != background) {
+			background = unfocused;
+			startClocks(); // Switch between the full and the background frame rate
 		}
 	}
 
-	// Method to stop playing the menu music
-	public static void stopMenu() {
-		if (menu != null && menu.isOpen()) {
-			menu.stop(); // Stop the menu music
-			menu.setMicrosecondPosition(0); // Reset its position to the beginning
-			menu.close(); // Close the clip
+	// Method to check if the screen shows a message that only the player can end (serve or game over),
+	// with nothing moving
+	private boolean isIdleScreen() {
+		if (!match.showStartMessage && !match.gameOver || hudVisible || restartRequested.get() || input.isAnyDown()) {
+			return false;
+		}
+		if (particles != null && particles.getCount() > 0) {
+			return false; // Let the sparks of the last point die down first
 		}
+		if (match.padel1.posY != match.padel1.lastY || match.padel2.posY != match.padel2.lastY) {
+			return false; // A paddle is still moving or being drawn between two positions
+		}
+		return cpu == null || match.gameOver || match.lastWinningPlayer != cpu.getPlayer(); // The computer serves itself
 	}
 
-	// Method to play game music
-	public static void playGame() {
+	// Method to advance the match together with the other player
+	private void advanceNetwork(int inputs) {
 		try {
-			File file = new File("Music/Game.wav"); // Open game music file
-			AudioInputStream audio = AudioSystem.getAudioInputStream(file); // Get audio input stream
-			game = AudioSystem.getClip(); // Get a clip for playing audio
-
-			game.open(audio); // Open the audio clip
-			game.addLineListener(event -> {
-				// Restart the theme song if it stops
-				if (event.getType() == javax.sound.sampled.LineEvent.Type.STOP) {
-					game.setMicrosecondPosition(0);
-					game.start();
-				}
-			});
-			game.start(); // Start playing game music
-		} catch (Exception e) {
-			e.printStackTrace();
+			net.advance(inputs); // Waits a tick instead if the other player is too far behind
+		} catch (IOException e) {
+			e.printStackTrace(); // Carry on without the other player
+			net.detach();
+			try {
+				net.close();
+			} catch (IOException ignored) {
+			}
+			net = null;
 		}
 	}
 
-	// Method to stop playing the game music
-	public static void stopGame() {
-		if (game != null && game.isOpen()) {
-			game.stop(); // Stop the game music
-			game.setMicrosecondPosition(0); // Reset its position to the beginning
-			game.close(); // Close the clip
+	// Method to get the refresh rate of the screen, 60 if it is not known
+	private static int displayRefreshRate() {
+		try {
+			int rate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode()
+					.getRefreshRate();
+			return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? 60 : rate;
+		} catch (HeadlessException e) {
+			return 60;
 		}
 	}
 
-	// Method to check if a player has won the game
-	private void checkWinCondition() {
-		if (score.player1Score >= 5) {
-			gameOver = true; // Set game over flag
-			winnerMessage = "Player 1 has won!"; // Set winner message
-			showStartMessage = false; // Hide start message
-		} else if (score.player2Score >= 5) {
-			gameOver = true; // Set game over flag
-			winnerMessage = "Player 2 has won!"; // Set winner message
-			showStartMessage = false; // Hide start message
+	// Method to repaint the old and new bounds of everything that moved since the last frame
+	private void repaintDamage() {
+		if (match.showStartMessage != lastShowStartMessage || match.gameOver != lastGameOver) {
+			damage.damageAll(); // Messages appeared or disappeared, redraw the whole screen
+			lastShowStartMessage = match.showStartMessage;
+			lastGameOver = match.gameOver;
 		}
-
-		if (gameOver) {
-			playAgainButton.setVisible(true); // Show play again button
-			mainMenuButton.setVisible(true); // Show main menu button
-			stopGame(); // Stop game music
-			playMenu(); // Play menu music
+		if (chaos != null && match.gameStarted) {
+			damage.damageAll(); // The chaos mode balls are everywhere
+		}
+		if (hudVisible != lastShowHud) {
+			damage.damageAll(); // Overlay appeared or disappeared
+			lastShowHud = hudVisible;
+		}
+		if (hudVisible && profiler.getHudVersion() != lastHudVersion) {
+			damage.damage(HUD_X, HUD_Y, GAME_WIDTH / 2 - HUD_X, profiler.getHudHeight()); // New overlay text
+			lastHudVersion = profiler.getHudVersion();
 		}
+		damage.track(DAMAGE_BALL, match.ball.drawX, match.ball.drawY, PlayerBall.BALL_DIAMETER,
+				PlayerBall.BALL_DIAMETER);
+		damage.track(DAMAGE_PADEL1, match.padel1.drawX, match.padel1.drawY, Padel.PADEL_LENGTH, Padel.PADEL_WIDTH);
+		damage.track(DAMAGE_PADEL2, match.padel2.drawX, match.padel2.drawY, Padel.PADEL_LENGTH, Padel.PADEL_WIDTH);
+
+		int scoreY = Score.BASELINE_Y - TextCache.ascent();
+		int scoreHeight = TextCache.ascent() + TextCache.descent();
+		damage.track(DAMAGE_SCORE1, Score.PLAYER1_X, scoreY, TextCache.numberWidth(match.score.player1Score),
+				scoreHeight);
+		damage.track(DAMAGE_SCORE2, Score.PLAYER2_X, scoreY, TextCache.numberWidth(match.score.player2Score),
+				scoreHeight);
+		if (particles != null) {
+			damage.track(DAMAGE_PARTICLES, particleBounds[0], particleBounds[1], particleBounds[2], particleBounds[3]);
+		}
+		damage.flush(); // Hand the damaged regions to the EDT
 	}
 
-	// Method to reset game state for a new round
-	private void resetGame() {
-		if (!gameOver) {
-			ball.x = GAME_WIDTH / 2 - PlayerBall.BALL_DIAMETER / 2; // Reset ball position
-			ball.y = GAME_HEIGHT / 2 - PlayerBall.BALL_DIAMETER / 2;
-			ball.xVelocity = 0; // Reset ball velocity
-			ball.yVelocity = 0;
-			gameStarted = false; // Reset game started flag
-			showStartMessage = true; // Show start message
+	@Override
+	//method to check if a key is pressed
+	public void keyPressed(KeyEvent e) {
+		input.keyPressed(e.getKeyCode()); // Sampled by the game thread at the start of the next tick
+		engine.wake(); // Answer straight away if the game loop sleeps
+	}
 
-			padel1.x = 0; // Reset paddle 1 position
-			padel1.y = (GAME_HEIGHT / 2) - Padel.PADEL_WIDTH / 2;
+	@Override
+	//method to check if a key is released
+	public void keyReleased(KeyEvent e) {
+		input.keyReleased(e.getKeyCode()); // Sampled by the game thread at the start of the next tick
+	}
 
-			padel2.x = GAME_WIDTH - 26; // Reset paddle 2 position
-			padel2.y = (GAME_HEIGHT / 2) - Padel.PADEL_WIDTH / 2;
-		}
+	@Override
+	//method not used but required for KeyListener
+	public void keyTyped(KeyEvent e) {
+		
+	}
+	// Method to crossfade to the menu music
+	public static void playMenu() {
+		BackgroundMusic.play(BackgroundMusic.MENU);
 	}
 
-	// Method to restart the game
-	private void restartGame() {
-		stopMenu(); // Stop menu music
-		playGame(); // Play game music
-		score.player1Score = 0; // Reset player 1 score
-		score.player2Score = 0; // Reset player 2 score
-		gameOver = false; // Reset game over flag
-		winnerMessage = ""; // Clear winner message
-		playAgainButton.setVisible(false); // Hide play again button
-		mainMenuButton.setVisible(false); // Hide main menu button
-		resetGame(); // Reset game state
-		repaint(); // Repaint the game panel
+	// Method to crossfade to the game music
+	public static void playGame() {
+		BackgroundMusic.play(BackgroundMusic.GAME);
 	}
 
 	// Method to return to the main menu
 	private void returnToMainMenu() {
+		engine.pause(); // Stop the game loop while the menu is shown
 		JFrame topFrame = (JFrame) SwingUtilities.getWindowAncestor(this);
 		topFrame.remove(this); // Remove current game panel
 		((GameFrame) topFrame).showStartPanel(); // Show start panel
@@ -399,12 +866,11 @@ public class GamePanel extends JPanel implements Runnable, KeyListener {
 	private void drawServeArrow(Graphics g, boolean towardsLeft) {
 		int arrowX = (GAME_WIDTH - PlayerBall.BALL_DIAMETER) / 2;
 		int arrowY = GAME_HEIGHT / 2;
-		g.setFont(new Font("Arial", Font.BOLD, 36)); // Larger font for arrow
 
 		if (!towardsLeft) {
-			g.drawString(">>>", arrowX + 30, arrowY + 12); // Arrow pointing to the right
+			TextCache.RIGHT_ARROW.draw(g, arrowX + 30, arrowY + 12); // Arrow pointing to the right
 		} else {
-			g.drawString("<<<", arrowX - 75, arrowY + 12); // Arrow pointing to the left
+			TextCache.LEFT_ARROW.draw(g, arrowX - 75, arrowY + 12); // Arrow pointing to the left
 		}
 	}
 }
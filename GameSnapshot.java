@@ -0,0 +1,37 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class holds everything the renderer needs to draw one frame: where the ball and paddles
+ * are drawn, the score and which message is shown. The game thread fills it in and publishes it
+ * through a SnapshotBuffer, the EDT only reads it.
+ */
+
+public class GameSnapshot {
+
+	// Number of the frame, counted up by the game thread every time a snapshot is published
+	public long frame;
+
+	// Drawn positions of the ball and the paddles
+	public int ballX, ballY;
+	public int padel1X, padel1Y;
+	public int padel2X, padel2Y;
+
+	// Drawn positions of the chaos mode balls, only the first chaosCount are used
+	public int chaosCount;
+	public int[] chaosX = new int[0], chaosY = new int[0];
+
+	// Drawn positions of the particles, sorted into color buckets
+	public int particleCount;
+	public int[] particleX = new int[0], particleY = new int[0];
+	public final int[] particleBuckets = new int[Particles.BUCKETS + 1];
+
+	// Score of both players
+	public int player1Score, player2Score;
+
+	// Screen state
+	public boolean showStartMessage;
+	public boolean gameOver;
+	public int lastWinningPlayer;
+	public TextCache.Text winnerText;
+	public boolean showHud;
+}
@@ -0,0 +1,54 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class measures input latency of the game. It opens a game panel, injects synthetic key
+ * presses for player 1 (alternating up and down so the paddle stays on screen) and prints the
+ * latency distribution from event to paddle move and from event to painted frame.
+ * Usage: java InputLatencyHarness [samples]
+ */
+
+import java.awt.event.KeyEvent;
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+
+class InputLatencyHarness {
+	public static void main(String[] args) throws Exception {
+		int samples = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		if (System.getProperty("pong.power") == null) {
+			System.setProperty("pong.power", "false"); // Measure the loop at full rate, not waking from sleep
+		}
+		InputLatencyProbe probe = new InputLatencyProbe(samples);
+		GamePanel[] panel = new GamePanel[1];
+
+		SwingUtilities.invokeAndWait(() -> {
+			JFrame frame = new JFrame("Pong input latency");
+			frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+			panel[0] = new GamePanel();
+			panel[0].setLatencyProbe(probe);
+			frame.add(panel[0]);
+			frame.pack();
+			frame.setVisible(true);
+		});
+		Thread.sleep(1000); // Let the window appear and the game loop settle
+
+		int timeouts = 0;
+		for (int i = 0; i < samples; i++) {
+			int key = i % 2 == 0 ? KeyBindings.PLAYER1_UP : KeyBindings.PLAYER1_DOWN;
+			SwingUtilities.invokeAndWait(() -> {
+				probe.keyInjected();
+				panel[0].dispatchEvent(new KeyEvent(panel[0], KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0,
+						key, KeyEvent.CHAR_UNDEFINED));
+			});
+			if (!probe.awaitPresented(1000)) {
+				timeouts++;
+			}
+			SwingUtilities.invokeAndWait(() -> panel[0].dispatchEvent(new KeyEvent(panel[0], KeyEvent.KEY_RELEASED,
+					System.currentTimeMillis(), 0, key, KeyEvent.CHAR_UNDEFINED)));
+			Thread.sleep(10 + (long) (Math.random() * 20)); // Land the next press at a random point of a tick
+		}
+
+		System.out.println(probe.report());
+		System.out.println("timeouts: " + timeouts);
+		System.exit(0);
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class measures input latency for one key press at a time: from the moment a key event is
+ * handed to the game panel until the game thread first moves paddle 1 (event to displacement),
+ * and until the EDT first paints the moved paddle (event to presented frame).
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class InputLatencyProbe {
+
+	// Time the pending key event was injected, 0 when no measurement is running
+	private volatile long injectedAt;
+	// Set once the game thread moved the paddle for the pending event
+	private volatile boolean moved;
+	// Released once the moved paddle was painted
+	private volatile CountDownLatch presented = new CountDownLatch(0);
+
+	// Measured latencies in nanoseconds
+	private final long[] toMove;
+	private final long[] toFrame;
+	private int moveCount;
+	private int frameCount;
+
+	// Constructor takes the number of measurements to keep
+	public InputLatencyProbe(int samples) {
+		toMove = new long[samples];
+		toFrame = new long[samples];
+	}
+
+	// Method called right before a key event is injected, starts a measurement
+	public void keyInjected() {
+		moved = false;
+		presented = new CountDownLatch(1);
+		injectedAt = System.nanoTime();
+	}
+
+	// Method called by the game thread when paddle 1 moved during a tick
+	public void paddleMoved() {
+		long start = injectedAt;
+		if (start != 0 && !moved) {
+			if (moveCount < toMove.length) {
+				toMove[moveCount++] = System.nanoTime() - start;
+			}
+			moved = true;
+		}
+	}
+
+	// Method called by the EDT when it painted paddle 1 at a new position
+	public void framePainted() {
+		long start = injectedAt;
+		if (start != 0 && moved) {
+			if (frameCount < toFrame.length) {
+				toFrame[frameCount++] = System.nanoTime() - start;
+			}
+			injectedAt = 0; // Measurement complete
+			presented.countDown();
+		}
+	}
+
+	// Method to wait until the pending measurement is complete, false if it timed out
+	public boolean awaitPresented(long timeoutMillis) throws InterruptedException {
+		boolean done = presented.await(timeoutMillis, TimeUnit.MILLISECONDS);
+		injectedAt = 0; // Give up on a measurement that timed out
+		return done;
+	}
+
+	// Method to describe both latency distributions
+	public String report() {
+		return "event to paddle move: " + describe(toMove, moveCount) + "\nevent to painted frame: "
+				+ describe(toFrame, frameCount);
+	}
+
+	// Method to describe one latency distribution in milliseconds
+	private static String describe(long[] samples, int count) {
+		if (count == 0) {
+			return "no samples";
+		}
+		long[] sorted = Arrays.copyOf(samples, count);
+		Arrays.sort(sorted);
+		return String.format("n=%d min %.2f ms, p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms", count,
+				sorted[0] / 1e6, percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+				sorted[count - 1] / 1e6);
+	}
+
+	// Method to get a percentile of sorted samples in milliseconds
+	private static double percentile(long[] sorted, double p) {
+		return sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))] / 1e6;
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class keeps which keys are held down as a set of bits. The EDT sets and clears bits as key
+ * events arrive, and the game thread takes one sample of all keys at the start of each tick, so the
+ * paddles move the same distance no matter how often the operating system repeats a held key.
+ * Only the first press of a held key counts as a press, so a repeated key does not toggle anything
+ * again.
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class InputState {
+
+	// Number of key codes that are tracked, key bindings outside it are refused
+	static final int KEYS = 1024;
+	private static final int WORDS = KEYS / 64;
+
+	// Keys held down right now, and keys pressed since the last sample (written by the EDT)
+	private final AtomicLongArray held = new AtomicLongArray(WORDS);
+	private final AtomicLongArray pressed = new AtomicLongArray(WORDS);
+
+	// Keys as sampled at the start of the current tick (only used by the game thread)
+	private final long[] sampledHeld = new long[WORDS];
+	private final long[] sampledPressed = new long[WORDS];
+
+	// Method to record that a key went down, a repeat of a key that is already down is ignored
+	public void keyPressed(int keyCode) {
+		if (keyCode >= 0 && keyCode < KEYS) {
+			long bit = 1L << keyCode;
+			long wasHeld = held.getAndAccumulate(keyCode >>> 6, bit, (bits, b) -> bits | b);
+			if ((wasHeld & bit) == 0) {
+				pressed.getAndAccumulate(keyCode >>> 6, bit, (bits, b) -> bits | b); // Kept until the next sample
+			}
+		}
+	}
+
+	// Method to record that a key went up
+	public void keyReleased(int keyCode) {
+		if (keyCode >= 0 && keyCode < KEYS) {
+			held.getAndAccumulate(keyCode >>> 6, ~(1L << keyCode), (bits, mask) -> bits & mask);
+		}
+	}
+
+	// Method to take the sample for the coming tick
+	public void sample() {
+		for (int i = 0; i < WORDS; i++) {
+			sampledPressed[i] = pressed.getAndSet(i, 0);
+			// A key that was pressed and released between two samples still counts as down for one tick
+			sampledHeld[i] = held.get(i) | sampledPressed[i];
+		}
+	}
+
+	// Method to check if a key is down in this tick's sample
+	public boolean isDown(int keyCode) {
+		return keyCode >= 0 && keyCode < KEYS && (sampledHeld[keyCode >>> 6] & (1L << keyCode)) != 0;
+	}
+
+	// Method to check if a key was pressed since the previous sample
+	public boolean wasPressed(int keyCode) {
+		return keyCode >= 0 && keyCode < KEYS && (sampledPressed[keyCode >>> 6] & (1L << keyCode)) != 0;
+	}
+
+	// Method to check if any key is down in this tick's sample
+	public boolean isAnyDown() {
+		for (int i = 0; i < WORDS; i++) {
+			if (sampledHeld[i] != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// Method to forget every key, used when the game loses the keyboard
+	public void clear() {
+		for (int i = 0; i < WORDS; i++) {
+			held.set(i, 0);
+			pressed.set(i, 0);
+		}
+	}
+}
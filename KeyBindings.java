@@ -0,0 +1,64 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class holds the keys that control the game. The defaults are W/S for player 1, I/K for
+ * player 2, SPACE to serve and F3 for the performance overlay. Each can be changed with a system
+ * property, for example -Dpong.keys.player1=UP,DOWN or -Dpong.keys.serve=ENTER (KeyStroke names).
+ */
+
+import java.awt.event.KeyEvent;
+import javax.swing.KeyStroke;
+
+public class KeyBindings {
+
+	// Key codes for each control
+	public static final int PLAYER1_UP, PLAYER1_DOWN;
+	public static final int PLAYER2_UP, PLAYER2_DOWN;
+	public static final int SERVE;
+	public static final int HUD;
+
+	static {
+		int[] player1 = parse("pong.keys.player1", "W,S", 2);
+		int[] player2 = parse("pong.keys.player2", "I,K", 2);
+		PLAYER1_UP = player1[0];
+		PLAYER1_DOWN = player1[1];
+		PLAYER2_UP = player2[0];
+		PLAYER2_DOWN = player2[1];
+		SERVE = parse("pong.keys.serve", "SPACE", 1)[0];
+		HUD = parse("pong.keys.hud", "F3", 1)[0];
+	}
+
+	// Method to read a comma separated list of key names, using the defaults if it is missing or wrong
+	private static int[] parse(String property, String defaults, int count) {
+		String value = System.getProperty(property, defaults);
+		int[] codes = keyCodes(value, count);
+		if (codes == null) {
+			System.err.println("Invalid key binding " + property + "=" + value + ", using " + defaults);
+			codes = keyCodes(defaults, count);
+		}
+		return codes;
+	}
+
+	// Method to turn key names into key codes, null if a name is not a key or its code is too high to
+	// be tracked (F13 to F24, for example)
+	private static int[] keyCodes(String value, int count) {
+		String[] names = value.split(",");
+		if (names.length != count) {
+			return null;
+		}
+		int[] codes = new int[count];
+		for (int i = 0; i < count; i++) {
+			KeyStroke key = KeyStroke.getKeyStroke(names[i].trim().toUpperCase());
+			if (key == null || key.getKeyCode() == KeyEvent.VK_UNDEFINED || key.getKeyCode() >= InputState.KEYS) {
+				return null;
+			}
+			codes[i] = key.getKeyCode();
+		}
+		return codes;
+	}
+
+	// Method to get the name of a key as shown to the players
+	public static String describe(int keyCode) {
+		return KeyEvent.getKeyText(keyCode);
+	}
+}
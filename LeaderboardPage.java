@@ -0,0 +1,137 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class handles the leaderboard page: the players with the highest ratings from the match log,
+ * and the latest matches of the player picked in the list. The data is read in the background
+ * every time the page is opened.
+ */
+
+import java.awt.*;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import javax.swing.*;
+
+@SuppressWarnings("serial")
+class LeaderboardPage extends JPanel {
+
+	// Number of players on the leaderboard and matches in a player's history
+	private static final int TOP_PLAYERS = 20;
+	private static final int HISTORY_MATCHES = 15;
+
+	//initialize all panels, buttons and lists
+	JPanel topPanel;
+	JButton backButton;
+	JLabel titleLabel;
+	DefaultListModel<String> standingsModel;
+	JList<String> standingsList;
+	JTextArea historyArea;
+	// Players in the order of the list
+	private List<MatchLog.Standing> standings = List.of();
+
+	// Constructor takes a reference to the parent GameFrame
+	public LeaderboardPage(GameFrame parentFrame) {
+		this.setLayout(new BorderLayout()); // Set layout manager to BorderLayout
+		this.setBackground(Color.WHITE); // Set background color to white
+
+		// Create top panel for the back button and title
+		topPanel = new JPanel(new BorderLayout());
+		topPanel.setBackground(Color.WHITE);
+		topPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+		// Create back button
+		backButton = new JButton("<<<");
+		backButton.setFont(new Font("Arial", Font.BOLD, 24));
+		backButton.setPreferredSize(new Dimension(80, 50));
+		backButton.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+		backButton.addActionListener(e -> {
+			SoundEffects.play(SoundEffects.CLICK); // Play sound on button click
+			parentFrame.showStartPanel(); // Go back to the start panel
+		});
+		topPanel.add(backButton, BorderLayout.WEST);
+
+		titleLabel = new JLabel("Leaderboard");
+		titleLabel.setFont(new Font("Arial", Font.BOLD, 40));
+		titleLabel.setHorizontalAlignment(JLabel.CENTER);
+		topPanel.add(titleLabel, BorderLayout.CENTER);
+		this.add(topPanel, BorderLayout.NORTH);
+
+		// Create the list of the best players on the left
+		standingsModel = new DefaultListModel<>();
+		standingsList = new JList<>(standingsModel);
+		standingsList.setFont(new Font("Monospaced", Font.PLAIN, 18));
+		standingsList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		standingsList.addListSelectionListener(e -> {
+			int selected = standingsList.getSelectedIndex();
+			if (!e.getValueIsAdjusting() && selected >= 0 && selected < standings.size()) {
+				showHistory(standings.get(selected).name);
+			}
+		});
+
+		// Create the history of the picked player on the right
+		historyArea = new JTextArea();
+		historyArea.setFont(new Font("Monospaced", Font.PLAIN, 16));
+		historyArea.setEditable(false);
+
+		JPanel contentPanel = new JPanel(new GridLayout(1, 2, 20, 0));
+		contentPanel.setBackground(Color.WHITE);
+		contentPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+		contentPanel.add(new JScrollPane(standingsList));
+		contentPanel.add(new JScrollPane(historyArea));
+		this.add(contentPanel, BorderLayout.CENTER);
+	}
+
+	// Method to read the leaderboard again, called every time the page is shown
+	public void refresh() {
+		standingsModel.clear();
+		standingsModel.addElement("Loading...");
+		historyArea.setText("");
+		MatchLog.shared().thenAcceptAsync(log -> {
+			List<MatchLog.Standing> top = log == null ? List.of() : log.leaderboard(TOP_PLAYERS);
+			int matches = log == null ? 0 : log.getMatchCount();
+			SwingUtilities.invokeLater(() -> showStandings(top, matches));
+		});
+	}
+
+	// Method to fill the list with the best players
+	private void showStandings(List<MatchLog.Standing> top, int matches) {
+		standings = top;
+		standingsModel.clear();
+		if (top.isEmpty()) {
+			standingsModel.addElement("No finished matches yet");
+			return;
+		}
+		for (int i = 0; i < top.size(); i++) {
+			MatchLog.Standing s = top.get(i);
+			standingsModel.addElement(String.format("%2d. %-16s %5.0f  %d-%d", i + 1, s.name, s.rating, s.wins,
+					s.losses));
+		}
+		historyArea.setText(matches + " matches played.\nPick a player to see their latest matches.");
+	}
+
+	// Method to show the latest matches of a player, read in the background
+	private void showHistory(String player) {
+		MatchLog.shared().thenAcceptAsync(log -> {
+			StringBuilder text = new StringBuilder(player + "\n\n");
+			if (log == null) {
+				text.append("The match log could not be opened.");
+				SwingUtilities.invokeLater(() -> historyArea.setText(text.toString()));
+				return;
+			}
+			try {
+				SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+				for (MatchLog.Result r : log.history(player, HISTORY_MATCHES)) {
+					boolean first = r.player1.equals(player);
+					double change = first ? r.ratingChange : -r.ratingChange;
+					text.append(String.format("%s  %d-%d vs %s  %+.0f  (%d s, points %s)%n",
+							format.format(new Date(r.time)), first ? r.score1 : r.score2, first ? r.score2 : r.score1,
+							first ? r.player2 : r.player1, change, r.durationMillis / 1000, r.points));
+				}
+			} catch (IOException e) {
+				text.append("Cannot read the match log: ").append(e.getMessage());
+			}
+			SwingUtilities.invokeLater(() -> historyArea.setText(text.toString()));
+		});
+	}
+}
@@ -7,11 +7,29 @@
  * - Play music or other sound effects in the program
  */
 
+import java.util.concurrent.CompletableFuture;
+import javax.swing.SwingUtilities;
+
 class Main {
 	public static void main(String[] args) {
-		
-		//run constructor of GameFrame
-		new GameFrame();
+		StartupTimer.mainStarted(); // Start timing the start up
+
+		//run constructor of GameFrame on the EDT, so the start screen shows as soon as possible
+		SwingUtilities.invokeLater(GameFrame::new);
+
+		// Meanwhile load everything the start screen does not need, in parallel
+		CompletableFuture.allOf(SoundEffects.start(), preload(TextCache.class), preload(KeyBindings.class),
+				preload(GamePanel.class)).thenRun(StartupTimer::assetsLoaded);
+	}
 
+	// Method to initialize a class in the background, for example to render its cached text
+	private static CompletableFuture<Void> preload(Class<?> c) {
+		return CompletableFuture.runAsync(() -> {
+			try {
+				Class.forName(c.getName(), true, c.getClassLoader()); // A class literal alone does not initialize
+			} catch (ClassNotFoundException e) {
+				e.printStackTrace();
+			}
+		});
 	}
 }
\ No newline at end of file
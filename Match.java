@@ -0,0 +1,308 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class is one match of Pong without any screen: the ball, both paddles, the score and the
+ * serve and win rules. It advances one fixed tick at a time from a set of input bits, and uses
+ * its own seeded random number generator, so the same seed and inputs always play out the same.
+ * The whole state can be saved into and loaded from a few bytes.
+ */
+
+import java.nio.ByteBuffer;
+
+public class Match {
+
+	// Input bits for one tick
+	public static final int P1_UP = 1;
+	public static final int P1_DOWN = 2;
+	public static final int P2_UP = 4;
+	public static final int P2_DOWN = 8;
+	public static final int SERVE = 16;
+	public static final int RESTART = 32;
+
+	// Lowest y position of the ball before it bounces off the bottom wall
+	public static final int BALL_BOTTOM = GamePanel.GAME_HEIGHT - PlayerBall.BALL_DIAMETER - 28;
+
+	// Number of bytes written by saveState
+	public static final int STATE_BYTES = 4 * 8 + 2 * 2 * 8 + 2 * 4 + 3 + 2 * 8;
+
+	// Game components: ball, paddles, and score
+	public final PlayerBall ball;
+	public final Padel padel1;
+	public final Padel padel2;
+	public final Score score;
+
+	// Flags to control game state
+	public boolean gameStarted = false;
+	public boolean showStartMessage = true;
+	public boolean gameOver = false;
+	// Last player who won a point, 1 for player 1, 2 for player 2
+	public int lastWinningPlayer;
+	// Player who won the match, 0 while it is still being played
+	public int winner;
+	// Number of ticks played
+	public long tick;
+
+	// State of the random number generator
+	private long random;
+
+	// Length of one tick in seconds, and the physics and scoring constants
+	private final double tickSeconds;
+	private final MatchRules rules;
+	// Finds when the ball touches a wall or paddle during a tick
+	private final SweptCollision collision = new SweptCollision(BALL_BOTTOM);
+	// Receives sounds and other events, and optionally times the tick phases
+	private MatchListener listener = MatchListener.NONE;
+	private Profiler profiler;
+
+	// Constructor starts a match with the given random seed and tick rate
+	public Match(long seed, double tickRate) {
+		this(seed, tickRate, MatchRules.DEFAULT);
+	}
+
+	// Constructor starts a match with other physics and scoring constants
+	public Match(long seed, double tickRate, MatchRules rules) {
+		tickSeconds = 1.0 / tickRate;
+		this.rules = rules;
+		random = seed;
+		score = new Score();
+		ball = new PlayerBall(0, 0);
+		padel1 = new Padel(0, 0, rules.padelSpeed, rules.padelWidth);
+		padel2 = new Padel(GamePanel.GAME_WIDTH - 26, 0, rules.padelSpeed, rules.padelWidth);
+		lastWinningPlayer = nextInt(2) + 1; // Initialize last winning player randomly with either player 1 or 2
+		resetRound();
+	}
+
+	// Method to set who hears about sounds and other events
+	public void setListener(MatchListener listener) {
+		this.listener = listener == null ? MatchListener.NONE : listener;
+	}
+
+	// Method to get who hears about sounds and other events
+	public MatchListener getListener() {
+		return listener;
+	}
+
+	// Method to time the tick phases with a profiler, or stop timing with null
+	public void setProfiler(Profiler profiler) {
+		this.profiler = profiler;
+	}
+
+	// Method to get the contact points of the last tick
+	public SweptCollision getCollision() {
+		return collision;
+	}
+
+	// Method to get the length of one tick in seconds
+	public double getTickSeconds() {
+		return tickSeconds;
+	}
+
+	// Method to get the physics and scoring constants
+	public MatchRules getRules() {
+		return rules;
+	}
+
+	// Method to advance the match by one tick with the given input bits
+	public void tick(int inputs) {
+		long start = profiler == null ? 0 : System.nanoTime();
+		ball.savePosition(); // Remember where everything was before this tick
+		padel1.savePosition();
+		padel2.savePosition();
+		applyInput(inputs);
+		long moveStart = split(Profiler.INPUT, start);
+		move();
+		long collisionStart = split(Profiler.MOVE, moveStart);
+		if (gameStarted && !gameOver) {
+			checkCollision(); // Check collisions if game started and not over
+		}
+		split(Profiler.COLLISION, collisionStart);
+		if (profiler != null) {
+			profiler.end(Profiler.TICK, start);
+		}
+		tick++;
+	}
+
+	// Method to record a phase in the profiler, returns the start time of the next phase
+	private long split(int phase, long start) {
+		if (profiler == null) {
+			return 0;
+		}
+		long now = System.nanoTime();
+		profiler.end(phase, start);
+		return now;
+	}
+
+	// Method to apply the input bits of this tick
+	private void applyInput(int inputs) {
+		if ((inputs & RESTART) != 0) {
+			restart();
+		}
+		if ((inputs & SERVE) != 0) {
+			serve();
+		}
+		padel1.applyInput((inputs & P1_UP) != 0, (inputs & P1_DOWN) != 0); // Steer paddle 1
+		padel2.applyInput((inputs & P2_UP) != 0, (inputs & P2_DOWN) != 0); // Steer paddle 2
+	}
+
+	// Method to serve the ball if the match is waiting for a serve
+	private void serve() {
+		//if the game has not started and the game is not yet over
+		if (!gameStarted && !gameOver) {
+			// Adjust ball serve direction based on the last winning player
+			if (lastWinningPlayer == 1) {
+				ball.xVelocity = -rules.ballSpeed; // Serve ball to the left
+			} else if (lastWinningPlayer == 2) {
+				ball.xVelocity = rules.ballSpeed; // Serve ball to the right
+			}
+
+			gameStarted = true; // Set game started flag
+			showStartMessage = false; // Hide start message
+			listener.served();
+		}
+	}
+
+	// Method to move the paddles
+	private void move() {
+		padel1.move(tickSeconds); // Move paddle 1
+		padel2.move(tickSeconds); // Move paddle 2
+	}
+
+	// Method to move the ball and check collisions
+	private void checkCollision() {
+		// Move the ball through the tick, bouncing at each surface it touches in order
+		double remaining = tickSeconds;
+		collision.clearContacts();
+		for (int bounce = 0; bounce < SweptCollision.MAX_BOUNCES && remaining > 0; bounce++) {
+			int surface = collision.findHit(ball, padel1, padel2, remaining);
+			if (surface == SweptCollision.NONE) {
+				ball.move(remaining); // Nothing in the way for the rest of the tick
+				break;
+			}
+			ball.move(collision.getHitTime()); // Move the ball to the point of contact
+			remaining -= collision.getHitTime();
+			collision.addContact(ball, surface);
+
+			if (surface == SweptCollision.TOP_WALL || surface == SweptCollision.BOTTOM_WALL
+					|| !collision.isHitOnX()) {
+				ball.yVelocity = -ball.yVelocity; // Reverse ball's Y velocity at a wall or a paddle end
+				listener.bounced(surface == SweptCollision.PADEL1 ? 1 : surface == SweptCollision.PADEL2 ? 2 : 0);
+			} else {
+				Padel padel = surface == SweptCollision.PADEL1 ? padel1 : padel2;
+				ball.xVelocity = -ball.xVelocity; // Reverse ball's X velocity on a paddle hit
+				ball.yVelocity += padel.yVelocity / 5 + rules.spinVariation * (nextInt(3) - 1); // Adjust ball's Y velocity
+				listener.bounced(surface == SweptCollision.PADEL1 ? 1 : 2);
+			}
+		}
+
+		//if the ball reaches the left side of the screen
+		if (ball.posX <= 0) {
+			pointWon(2);
+		}
+		//if the ball reaches the right side of the screen
+		else if (ball.posX + PlayerBall.BALL_DIAMETER >= GamePanel.GAME_WIDTH) {
+			pointWon(1);
+		}
+	}
+
+	// Method to give a point to a player
+	private void pointWon(int player) {
+		if (player == 1) {
+			score.player1Score++; // Increment player 1 score
+			lastWinningPlayer = 2; // Player 2 lost the point and serves next
+		} else {
+			score.player2Score++; // Increment player 2 score
+			lastWinningPlayer = 1; // Player 1 lost the point and serves next
+		}
+		listener.scored(player);
+		checkWinCondition(); // Check if game is won
+		resetRound(); // Reset game
+	}
+
+	// Method to check if a player has won the game
+	private void checkWinCondition() {
+		if (score.player1Score >= rules.winningScore) {
+			winner = 1;
+		} else if (score.player2Score >= rules.winningScore) {
+			winner = 2;
+		}
+		if (winner != 0 && !gameOver) {
+			gameOver = true; // Set game over flag
+			showStartMessage = false; // Hide start message
+			listener.won(winner);
+		}
+	}
+
+	// Method to reset game state for a new round
+	private void resetRound() {
+		if (!gameOver) {
+			ball.setPosition(GamePanel.GAME_WIDTH / 2 - PlayerBall.BALL_DIAMETER / 2,
+					GamePanel.GAME_HEIGHT / 2 - PlayerBall.BALL_DIAMETER / 2); // Reset ball position
+			ball.xVelocity = 0; // Reset ball velocity
+			ball.yVelocity = 0;
+			gameStarted = false; // Reset game started flag
+			showStartMessage = true; // Show start message
+
+			padel1.setPosition(0, (GamePanel.GAME_HEIGHT / 2) - padel1.height / 2); // Reset paddle 1 position
+			padel2.setPosition(GamePanel.GAME_WIDTH - 26, (GamePanel.GAME_HEIGHT / 2) - padel2.height / 2); // Reset paddle 2 position
+
+			ball.savePosition(); // Jump to the new positions instead of sliding there
+			padel1.savePosition();
+			padel2.savePosition();
+		}
+	}
+
+	// Method to start a new match after the last one was won
+	public void restart() {
+		score.player1Score = 0; // Reset player 1 score
+		score.player2Score = 0; // Reset player 2 score
+		gameOver = false; // Reset game over flag
+		winner = 0;
+		resetRound(); // Reset game state
+	}
+
+	// Method to get a random number from 0 to bound - 1 (SplitMix64)
+	private int nextInt(int bound) {
+		random += 0x9E3779B97F4A7C15L;
+		long z = random;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		z ^= z >>> 31;
+		return (int) ((z >>> 1) % bound);
+	}
+
+	// Method to write the whole state of the match into a buffer (STATE_BYTES bytes)
+	public void saveState(ByteBuffer out) {
+		out.putDouble(ball.posX).putDouble(ball.posY).putDouble(ball.xVelocity).putDouble(ball.yVelocity);
+		out.putDouble(padel1.posY).putDouble(padel1.yVelocity);
+		out.putDouble(padel2.posY).putDouble(padel2.yVelocity);
+		out.putInt(score.player1Score).putInt(score.player2Score);
+		out.put((byte) ((gameStarted ? 1 : 0) | (showStartMessage ? 2 : 0) | (gameOver ? 4 : 0)));
+		out.put((byte) lastWinningPlayer).put((byte) winner);
+		out.putLong(random).putLong(tick);
+	}
+
+	// Method to read the whole state of the match from a buffer written by saveState
+	public void loadState(ByteBuffer in) {
+		ball.setPosition(in.getDouble(), in.getDouble());
+		ball.xVelocity = in.getDouble();
+		ball.yVelocity = in.getDouble();
+		padel1.setPosition(padel1.posX, in.getDouble());
+		padel1.yVelocity = in.getDouble();
+		padel2.setPosition(padel2.posX, in.getDouble());
+		padel2.yVelocity = in.getDouble();
+		score.player1Score = in.getInt();
+		score.player2Score = in.getInt();
+		int flags = in.get();
+		gameStarted = (flags & 1) != 0;
+		showStartMessage = (flags & 2) != 0;
+		gameOver = (flags & 4) != 0;
+		lastWinningPlayer = in.get();
+		winner = in.get();
+		random = in.getLong();
+		tick = in.getLong();
+
+		ball.savePosition(); // Jump to the loaded positions instead of sliding there
+		padel1.savePosition();
+		padel2.savePosition();
+	}
+}
@@ -0,0 +1,12 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This interface chooses the input bits of a match for its next tick, for matches run without a
+ * keyboard: on a server, against the computer or in simulations.
+ */
+
+public interface MatchController {
+
+	// Method to choose the input bits (Match.P1_UP and so on) of the next tick of a match
+	int inputs(Match match);
+}
@@ -0,0 +1,58 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This interface lets the screen react to what happens in a match (sounds, music, effects)
+ * without the match knowing about Swing or audio. Every method does nothing unless overridden.
+ */
+
+public interface MatchListener {
+
+	// Listener used when nobody is listening, for example while replaying or simulating
+	MatchListener NONE = new MatchListener() {
+	};
+
+	// Called when a player serves
+	default void served() {
+	}
+
+	// Called when the ball bounces off a paddle (1 or 2) or off a wall (0)
+	default void bounced(int player) {
+	}
+
+	// Called when a player scores a point
+	default void scored(int player) {
+	}
+
+	// Called when a player has won the match
+	default void won(int player) {
+	}
+
+	// Method to get a listener that tells both listeners about everything, first one then two
+	static MatchListener both(MatchListener one, MatchListener two) {
+		return new MatchListener() {
+			@Override
+			public void served() {
+				one.served();
+				two.served();
+			}
+
+			@Override
+			public void bounced(int player) {
+				one.bounced(player);
+				two.bounced(player);
+			}
+
+			@Override
+			public void scored(int player) {
+				one.scored(player);
+				two.scored(player);
+			}
+
+			@Override
+			public void won(int player) {
+				one.won(player);
+				two.won(player);
+			}
+		};
+	}
+}
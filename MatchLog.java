@@ -0,0 +1,531 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class keeps the result of every finished match in an append-only file: who played, the
+ * final score, how long it took and who won each point. Records are only ever added at the end,
+ * so a crash can at worst cut off the last one, which is dropped the next time the file is
+ * opened. Every record ends with a CRC-32C of its bytes; a damaged record is skipped and the scan
+ * looks for the next whole record after it, so one bad byte loses one record, not the log.
+ * Opening the file reads it once from start to end and builds an index in memory: the
+ * place of every match in the file, each player's Elo rating and win record, and the list of
+ * matches of each player. Leaderboards are answered from the ratings and a player's history is
+ * read straight from the file positions in the index.
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32C;
+
+public class MatchLog implements Closeable {
+
+	// File the game keeps its results in
+	public static final String FILE = System.getProperty("pong.results", "results.log");
+	// Rating of a new player and the most a rating changes in one match
+	public static final double INITIAL_RATING = 1500;
+	public static final double K_FACTOR = 32;
+
+	// Start of the file: "PONG" and the format version
+	private static final int MAGIC = 0x504F4E47;
+	private static final int VERSION = 2;
+	private static final int HEADER_BYTES = 8;
+	// Record types. Every record starts with its length (not counting the length itself) and type,
+	// and ends with the CRC of everything before it, the length included.
+	private static final byte PLAYER = 1;
+	private static final byte MATCH = 2;
+	private static final int CRC_BYTES = 4;
+	// Bytes of a player record before the name: type and player number
+	private static final int PLAYER_BYTES = 1 + 4;
+	// Bytes of a match record before the points: type, time, players, scores and duration
+	private static final int MATCH_BYTES = 1 + 8 + 4 + 4 + 1 + 1 + 4;
+	// Most points a match record holds, the scores fit in one byte each
+	private static final int MAX_POINTS = 255;
+	// Size of the reads used to scan the file when it is opened
+	private static final int SCAN_BYTES = 1 << 20;
+
+	private static CompletableFuture<MatchLog> shared;
+
+	private final Path file;
+	private FileChannel channel; // Null until the first record is written to a new log
+	private long end; // Where the next record is written
+	private final CRC32C crc = new CRC32C();
+	// Damaged records skipped, and bytes skipped with them, when the file was opened
+	private int skippedRecords;
+	private long skippedBytes;
+
+	// Players: names, ratings, wins and losses, and the numbers of their matches in order
+	private final List<String> names = new ArrayList<>();
+	private final Map<String, Integer> ids = new HashMap<>();
+	private double[] ratings = new double[16];
+	private int[] wins = new int[16];
+	private int[] losses = new int[16];
+	private int[][] matchesOf = new int[16][];
+	private int[] matchCountOf = new int[16];
+
+	// Matches: where each record starts, and how much player 1's rating changed
+	private long[] offsets = new long[1024];
+	private float[] ratingChanges = new float[1024];
+	private int matchCount;
+
+	// One player's place on the leaderboard
+	public static class Standing {
+		public final String name;
+		public final double rating;
+		public final int wins;
+		public final int losses;
+
+		Standing(String name, double rating, int wins, int losses) {
+			this.name = name;
+			this.rating = rating;
+			this.wins = wins;
+			this.losses = losses;
+		}
+	}
+
+	// One finished match
+	public static class Result {
+		public final long time;
+		public final String player1;
+		public final String player2;
+		public final int score1;
+		public final int score2;
+		public final int durationMillis;
+		// Winner of each point in order, '1' or '2'
+		public final String points;
+		// Change of player 1's rating, player 2's changed by the opposite
+		public final double ratingChange;
+
+		Result(long time, String player1, String player2, int score1, int score2, int durationMillis, String points,
+				double ratingChange) {
+			this.time = time;
+			this.player1 = player1;
+			this.player2 = player2;
+			this.score1 = score1;
+			this.score2 = score2;
+			this.durationMillis = durationMillis;
+			this.points = points;
+			this.ratingChange = ratingChange;
+		}
+	}
+
+	private MatchLog(Path file) {
+		this.file = file;
+	}
+
+	// Method to get the log of the game, opened in the background the first time it is asked for.
+	// The future holds null if the file cannot be used.
+	public static synchronized CompletableFuture<MatchLog> shared() {
+		if (shared == null) {
+			shared = CompletableFuture.supplyAsync(() -> {
+				try {
+					return open(Paths.get(FILE));
+				} catch (IOException | IllegalArgumentException e) {
+					e.printStackTrace(); // Play without keeping results
+					return null;
+				}
+			});
+		}
+		return shared;
+	}
+
+	// Method to open a log and build its index. A log that does not exist yet starts empty, and its
+	// file is only created when the first match is added.
+	public static MatchLog open(Path file) throws IOException {
+		MatchLog log = new MatchLog(file);
+		if (!Files.exists(file)) {
+			log.end = HEADER_BYTES;
+			return log;
+		}
+		log.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			log.scan();
+		} catch (IOException | IllegalArgumentException e) {
+			log.channel.close();
+			throw e;
+		}
+		return log;
+	}
+
+	// Method to read the whole file once, indexing every whole record. A record with a bad length
+	// or CRC is skipped one byte at a time until the next whole record, and anything after the last
+	// whole record (a cut off record) is dropped.
+	private void scan() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+		if (channel.size() < HEADER_BYTES) {
+			writeHeader(); // Created but the header was never written
+			return;
+		}
+		channel.read(header, 0);
+		if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+			throw new IllegalArgumentException("not a match log");
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(SCAN_BYTES);
+		long size = channel.size();
+		long position = HEADER_BYTES; // File position of the first byte in the buffer
+		long next = position; // File position of the next byte to read into the buffer
+		long lastWhole = position; // End of the last whole record
+		boolean damaged = false; // Whether the bytes since the last whole record are being skipped
+		buffer.limit(0);
+		while (true) {
+			int start = buffer.position();
+			int length = buffer.remaining() < 2 ? -1 : buffer.getShort(start) & 0xFFFF;
+			if (length < 0 || buffer.remaining() < 2 + length) {
+				if (next < size) {
+					buffer.compact(); // Keep the start of the record and read the rest of it
+					next += channel.read(buffer, next);
+					buffer.flip();
+					continue;
+				}
+				if (length < 0) {
+					break; // End of the file
+				}
+				length = -1; // Runs past the end of the file: cut off, or a damaged length
+			}
+			if (length < 1 + CRC_BYTES || !checkCrc(buffer, start, length)) {
+				if (!damaged) {
+					damaged = true;
+					skippedRecords++;
+				}
+				skippedBytes++;
+				buffer.position(start + 1); // Look for the next whole record one byte further on
+				position++;
+				continue;
+			}
+
+			damaged = false;
+			buffer.position(start + 2);
+			long offset = position;
+			int recordEnd = start + 2 + length;
+			byte type = buffer.get();
+			if (type == PLAYER && length >= PLAYER_BYTES + CRC_BYTES) {
+				int id = buffer.getInt();
+				byte[] name = new byte[length - PLAYER_BYTES - CRC_BYTES];
+				buffer.get(name);
+				readPlayer(id, new String(name, StandardCharsets.UTF_8));
+			} else if (type == MATCH && length >= MATCH_BYTES + CRC_BYTES
+					&& length <= MATCH_BYTES + MAX_POINTS + CRC_BYTES) {
+				buffer.getLong(); // Time, only needed for the history
+				int player1 = buffer.getInt();
+				int player2 = buffer.getInt();
+				int score1 = buffer.get();
+				int score2 = buffer.get();
+				if (isPlayer(player1) && isPlayer(player2)) {
+					addMatch(offset, player1, player2, score1, score2);
+				} else {
+					skippedRecords++; // Its players were lost with a damaged record
+				}
+			}
+			buffer.position(recordEnd); // Skip the rest, including records of unknown types
+			position += 2 + length;
+			lastWhole = position;
+		}
+		if (damaged) {
+			skippedRecords--; // Nothing whole after it, so it is the cut off last record, not damage
+			skippedBytes -= position - lastWhole;
+		}
+		if (lastWhole < size) {
+			channel.truncate(lastWhole); // Drop the cut off record so new records follow the last whole one
+		}
+		if (skippedRecords > 0) {
+			System.err.printf("Match log %s: skipped %d damaged records (%d bytes)%n", file, skippedRecords,
+					skippedBytes);
+		}
+		end = lastWhole;
+	}
+
+	// Method to check the CRC at the end of a record in the buffer
+	private boolean checkCrc(ByteBuffer buffer, int start, int length) {
+		int crcAt = start + 2 + length - CRC_BYTES;
+		int limit = buffer.limit();
+		crc.reset();
+		buffer.position(start).limit(crcAt);
+		crc.update(buffer);
+		buffer.limit(limit);
+		return (int) crc.getValue() == buffer.getInt(crcAt);
+	}
+
+	// Method to add a player record read from the file, keeping its number. Numbers of players whose
+	// records were damaged are kept free with a placeholder name.
+	private void readPlayer(int id, String name) {
+		if (id < names.size() || ids.containsKey(name)) {
+			skippedRecords++; // Number or name already taken, the record cannot be right
+			return;
+		}
+		while (names.size() < id) {
+			addPlayer("(lost player " + names.size() + ")");
+		}
+		addPlayer(name);
+	}
+
+	private boolean isPlayer(int id) {
+		return id >= 0 && id < names.size();
+	}
+
+	// Method to add a player to the index, returns the player's number
+	private int addPlayer(String name) {
+		int id = names.size();
+		names.add(name);
+		ids.put(name, id);
+		if (id == ratings.length) {
+			int capacity = id * 2;
+			ratings = Arrays.copyOf(ratings, capacity);
+			wins = Arrays.copyOf(wins, capacity);
+			losses = Arrays.copyOf(losses, capacity);
+			matchesOf = Arrays.copyOf(matchesOf, capacity);
+			matchCountOf = Arrays.copyOf(matchCountOf, capacity);
+		}
+		ratings[id] = INITIAL_RATING;
+		matchesOf[id] = new int[4];
+		return id;
+	}
+
+	// Method to add a match to the index and update both players' ratings
+	private void addMatch(long offset, int player1, int player2, int score1, int score2) {
+		int match = matchCount++;
+		if (match == offsets.length) {
+			offsets = Arrays.copyOf(offsets, match * 2);
+			ratingChanges = Arrays.copyOf(ratingChanges, match * 2);
+		}
+		offsets[match] = offset;
+
+		// Elo: the winner takes points from the loser, more if the win was less expected
+		double expected = 1 / (1 + Math.pow(10, (ratings[player2] - ratings[player1]) / 400));
+		double actual = score1 > score2 ? 1 : score1 < score2 ? 0 : 0.5;
+		double change = K_FACTOR * (actual - expected);
+		ratings[player1] += change;
+		ratings[player2] -= change;
+		ratingChanges[match] = (float) change;
+		if (score1 > score2) {
+			wins[player1]++;
+			losses[player2]++;
+		} else if (score2 > score1) {
+			wins[player2]++;
+			losses[player1]++;
+		}
+		addToHistory(player1, match);
+		if (player2 != player1) {
+			addToHistory(player2, match);
+		}
+	}
+
+	private void addToHistory(int player, int match) {
+		int count = matchCountOf[player]++;
+		if (count == matchesOf[player].length) {
+			matchesOf[player] = Arrays.copyOf(matchesOf[player], count * 2);
+		}
+		matchesOf[player][count] = match;
+	}
+
+	// Method to add a finished match to the end of the log, with the winner of each point in order
+	// (1 or 2), returns the match number
+	public synchronized int append(String player1, String player2, int score1, int score2, int durationMillis,
+			byte[] points, int pointCount) throws IOException {
+		if (player1.equals(player2)) {
+			throw new IllegalArgumentException("a player cannot play against themselves");
+		}
+		if (score1 < 0 || score2 < 0 || score1 > Byte.MAX_VALUE || score2 > Byte.MAX_VALUE || score1 == score2) {
+			throw new IllegalArgumentException("bad score " + score1 + "-" + score2);
+		}
+		if (pointCount < 0 || pointCount > MAX_POINTS || pointCount > points.length) {
+			throw new IllegalArgumentException("bad point count " + pointCount);
+		}
+		int id1 = playerId(player1);
+		int id2 = playerId(player2);
+		ByteBuffer record = ByteBuffer.allocate(2 + MATCH_BYTES + pointCount + CRC_BYTES);
+		record.putShort((short) (MATCH_BYTES + pointCount + CRC_BYTES)).put(MATCH).putLong(System.currentTimeMillis());
+		record.putInt(id1).putInt(id2).put((byte) score1).put((byte) score2).putInt(durationMillis);
+		record.put(points, 0, pointCount);
+		long offset = end;
+		write(record);
+		addMatch(offset, id1, id2, score1, score2);
+		return matchCount - 1;
+	}
+
+	// Method to get a player's number, writing a player record the first time a name is seen
+	private int playerId(String name) throws IOException {
+		Integer id = ids.get(name);
+		if (id != null) {
+			return id;
+		}
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > 200) {
+			throw new IllegalArgumentException("player name too long");
+		}
+		ByteBuffer record = ByteBuffer.allocate(2 + PLAYER_BYTES + bytes.length + CRC_BYTES);
+		record.putShort((short) (PLAYER_BYTES + bytes.length + CRC_BYTES)).put(PLAYER).putInt(names.size()).put(bytes);
+		write(record);
+		return addPlayer(name);
+	}
+
+	// Method to start the file with its header, throwing away anything in it
+	private void writeHeader() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+		header.putInt(MAGIC).putInt(VERSION).flip();
+		channel.truncate(0);
+		channel.write(header, 0);
+		end = HEADER_BYTES;
+	}
+
+	// Method to end a filled in record with its CRC and write it at the end of the file, creating the
+	// file first if this is its first record
+	private void write(ByteBuffer record) throws IOException {
+		if (channel == null) {
+			channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+			writeHeader();
+		}
+		crc.reset();
+		crc.update(record.array(), 0, record.position());
+		record.putInt((int) crc.getValue()).flip();
+		while (record.hasRemaining()) {
+			end += channel.write(record, end);
+		}
+	}
+
+	// Method to get the number of matches in the log
+	public synchronized int getMatchCount() {
+		return matchCount;
+	}
+
+	// Method to get the number of damaged records skipped when the log was opened
+	public synchronized int getSkippedRecords() {
+		return skippedRecords;
+	}
+
+	// Method to get the number of players in the log
+	public synchronized int getPlayerCount() {
+		return names.size();
+	}
+
+	// Method to get a player's rating, the starting rating for an unknown player
+	public synchronized double getRating(String player) {
+		Integer id = ids.get(player);
+		return id == null ? INITIAL_RATING : ratings[id];
+	}
+
+	// Method to get the players with the highest ratings, best first
+	public synchronized List<Standing> leaderboard(int count) {
+		// Keep the best players seen so far in a small heap with the worst of them on top
+		int[] heap = new int[Math.min(count, names.size())];
+		int size = 0;
+		for (int player = 0; player < names.size(); player++) {
+			if (size < heap.length) {
+				heap[size] = player;
+				siftUp(heap, size++);
+			} else if (heap.length > 0 && better(player, heap[0])) {
+				heap[0] = player;
+				siftDown(heap, size);
+			}
+		}
+		Standing[] standings = new Standing[size];
+		while (size > 0) {
+			int player = heap[0]; // Worst of the rest goes last
+			heap[0] = heap[--size];
+			siftDown(heap, size);
+			standings[size] = new Standing(names.get(player), ratings[player], wins[player], losses[player]);
+		}
+		return Arrays.asList(standings);
+	}
+
+	// Method to check if a player ranks above another: higher rating, then more wins, then joined first
+	private boolean better(int a, int b) {
+		if (ratings[a] != ratings[b]) {
+			return ratings[a] > ratings[b];
+		}
+		if (wins[a] != wins[b]) {
+			return wins[a] > wins[b];
+		}
+		return a < b;
+	}
+
+	private void siftUp(int[] heap, int i) {
+		while (i > 0 && better(heap[(i - 1) / 2], heap[i])) {
+			int parent = (i - 1) / 2;
+			int swap = heap[parent];
+			heap[parent] = heap[i];
+			heap[i] = swap;
+			i = parent;
+		}
+	}
+
+	private void siftDown(int[] heap, int size) {
+		int i = 0;
+		while (true) {
+			int worst = i;
+			for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+				if (better(heap[worst], heap[child])) {
+					worst = child;
+				}
+			}
+			if (worst == i) {
+				return;
+			}
+			int swap = heap[worst];
+			heap[worst] = heap[i];
+			heap[i] = swap;
+			i = worst;
+		}
+	}
+
+	// Method to get a player's latest matches, newest first
+	public synchronized List<Result> history(String player, int count) throws IOException {
+		List<Result> results = new ArrayList<>();
+		Integer id = ids.get(player);
+		if (id == null) {
+			return results;
+		}
+		ByteBuffer record = ByteBuffer.allocate(2 + MATCH_BYTES + MAX_POINTS + CRC_BYTES);
+		for (int k = matchCountOf[id] - 1; k >= 0 && results.size() < count; k--) {
+			results.add(readMatch(matchesOf[id][k], record));
+		}
+		return results;
+	}
+
+	// Method to read a match record from the file
+	private Result readMatch(int match, ByteBuffer record) throws IOException {
+		record.clear();
+		long offset = offsets[match];
+		while (record.hasRemaining()) {
+			int read = channel.read(record, offset + record.position());
+			if (read < 0) {
+				break; // The last record can be shorter than the buffer
+			}
+		}
+		record.flip();
+		int length = record.getShort() & 0xFFFF;
+		record.get(); // Type
+		long time = record.getLong();
+		String player1 = names.get(record.getInt());
+		String player2 = names.get(record.getInt());
+		int score1 = record.get();
+		int score2 = record.get();
+		int durationMillis = record.getInt();
+		StringBuilder points = new StringBuilder();
+		for (int i = MATCH_BYTES; i < length - CRC_BYTES; i++) {
+			points.append(record.get());
+		}
+		return new Result(time, player1, player2, score1, score2, durationMillis, points.toString(),
+				ratingChanges[match]);
+	}
+
+	@Override
+	// Method to close the file
+	public synchronized void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class measures the match log with millions of matches: how fast results are appended, how
+ * long opening the file and rebuilding the index takes, and how long a leaderboard query and a
+ * player's history take. The matches are played out of random results between a set of players
+ * of different strength, so the leaderboard should come out in order of strength. Last, it
+ * damages a copy of the file (a flipped byte in a player record and in a match record, and a cut
+ * off record at the end) and checks that opening it skips only those records.
+ * Usage: java MatchLogBenchmark [matches] [players] [file]
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+class MatchLogBenchmark {
+	public static void main(String[] args) throws Exception {
+		int matches = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+		int players = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		Path file = args.length > 2 ? Paths.get(args[2]) : Files.createTempFile("pong-results", ".log");
+		Files.deleteIfExists(file);
+		SplittableRandom random = new SplittableRandom(1);
+		int winningScore = MatchRules.DEFAULT.winningScore;
+		byte[] points = new byte[2 * winningScore];
+
+		// Player i wins a point against player j with a chance that grows with i - j
+		long start = System.nanoTime();
+		try (MatchLog log = MatchLog.open(file)) {
+			for (int m = 0; m < matches; m++) {
+				int a = random.nextInt(players);
+				int b = (a + 1 + random.nextInt(players - 1)) % players;
+				double chance = 1 / (1 + Math.exp((b - a) * 4.0 / players));
+				int scoreA = 0, scoreB = 0, count = 0;
+				while (scoreA < winningScore && scoreB < winningScore) {
+					boolean pointA = random.nextDouble() < chance;
+					scoreA += pointA ? 1 : 0;
+					scoreB += pointA ? 0 : 1;
+					points[count++] = (byte) (pointA ? 1 : 2);
+				}
+				log.append("player" + a, "player" + b, scoreA, scoreB, 30_000 + random.nextInt(90_000), points, count);
+			}
+		}
+		double appendSeconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("appended %d matches between %d players in %.2f s (%.0f matches/s), file %.1f MB%n",
+				matches, players, appendSeconds, matches / appendSeconds, Files.size(file) / 1e6);
+
+		start = System.nanoTime();
+		try (MatchLog log = MatchLog.open(file)) {
+			System.out.printf("opened and indexed %d matches in %.1f ms%n", log.getMatchCount(),
+					(System.nanoTime() - start) / 1e6);
+
+			int queries = 1000;
+			List<MatchLog.Standing> top = null;
+			start = System.nanoTime();
+			for (int q = 0; q < queries; q++) {
+				top = log.leaderboard(10);
+			}
+			System.out.printf("top 10 leaderboard: %.3f ms per query%n", (System.nanoTime() - start) / 1e6 / queries);
+			for (MatchLog.Standing s : top) {
+				System.out.printf("  %-10s %6.0f  %d-%d%n", s.name, s.rating, s.wins, s.losses);
+			}
+
+			queries = 10_000;
+			long[] times = new long[queries];
+			int results = 0;
+			for (int q = 0; q < queries; q++) {
+				long queryStart = System.nanoTime();
+				results += log.history("player" + random.nextInt(players), 20).size();
+				times[q] = System.nanoTime() - queryStart;
+			}
+			Arrays.sort(times);
+			System.out.printf("history of 20 matches: p50 %.3f ms, p99 %.3f ms, max %.3f ms (%d results)%n",
+					times[queries / 2] / 1e6, times[queries * 99 / 100] / 1e6, times[queries - 1] / 1e6, results);
+		}
+		checkDamage(file, matches);
+		if (args.length <= 2) {
+			Files.delete(file);
+		}
+	}
+
+	// Method to damage a copy of the log and check that only the damaged records are lost
+	private static void checkDamage(Path file, int matches) throws Exception {
+		Path copy = Files.createTempFile("pong-results-damaged", ".log");
+		Files.copy(file, copy, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+		long size = Files.size(copy);
+		try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			flip(channel, 8 + 2 + 1); // Player number of the first player record
+			flip(channel, size / 2); // Somewhere in the middle, most likely a match record
+			channel.write(ByteBuffer.wrap(new byte[] { 0, 40, 2, 0, 0 }), size); // A cut off match record
+		}
+		long start = System.nanoTime();
+		try (MatchLog log = MatchLog.open(copy)) {
+			int lost = matches - log.getMatchCount();
+			boolean passed = log.getSkippedRecords() <= 2 + lost && lost <= 1 + log.getSkippedRecords()
+					&& Files.size(copy) == size && log.getMatchCount() > 0;
+			System.out.printf("damaged copy opened in %.1f ms: %d damaged records skipped, %d of %d matches lost,"
+					+ " cut off record dropped: %s%n", (System.nanoTime() - start) / 1e6, log.getSkippedRecords(),
+					lost, matches, passed ? "damage check passed" : "DAMAGE CHECK FAILED");
+		}
+		Files.delete(copy);
+	}
+
+	private static void flip(FileChannel channel, long position) throws Exception {
+		ByteBuffer b = ByteBuffer.allocate(1);
+		channel.read(b, position);
+		b.put(0, (byte) ~b.get(0));
+		b.rewind();
+		channel.write(b, position);
+	}
+}
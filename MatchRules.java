@@ -0,0 +1,42 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class holds the physics and scoring constants of a match, so that simulations can try other
+ * values than the ones the game is played with.
+ */
+
+public class MatchRules {
+
+	// The rules the game is played with: serve at 540 and paddles at 600 pixels per second, spin of
+	// 60 pixels per second, first to 5 points
+	public static final MatchRules DEFAULT = new MatchRules(540, 600, Padel.PADEL_WIDTH, 60, 5);
+
+	// Serve speed of the ball and speed of the paddles, in pixels per second
+	public final double ballSpeed;
+	public final double padelSpeed;
+	// Height of the paddles in pixels
+	public final int padelWidth;
+	// Random change of the ball's Y velocity on a paddle hit, in pixels per second
+	public final double spinVariation;
+	// Points needed to win the match
+	public final int winningScore;
+
+	// Constructor takes every constant
+	public MatchRules(double ballSpeed, double padelSpeed, int padelWidth, double spinVariation, int winningScore) {
+		if (ballSpeed <= 0 || padelSpeed < 0 || padelWidth <= 0 || padelWidth > GamePanel.GAME_HEIGHT
+				|| winningScore < 1) {
+			throw new IllegalArgumentException("invalid match rules");
+		}
+		this.ballSpeed = ballSpeed;
+		this.padelSpeed = padelSpeed;
+		this.padelWidth = padelWidth;
+		this.spinVariation = spinVariation;
+		this.winningScore = winningScore;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ball %.0f, paddle %.0f x %d, spin %.0f, to %d", ballSpeed, padelSpeed, padelWidth,
+				spinVariation, winningScore);
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class runs many headless matches at once on a small pool of tick shards, one thread per
+ * core. Each shard owns an array of matches and ticks all of them together at the tick rate, so a
+ * match costs no thread of its own. New matches go to the shard with the fewest. Each shard counts
+ * its deadline misses: tick rounds that were still running when the next one was due.
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class MatchServer implements AutoCloseable {
+
+	// Most ticks a shard runs back to back to catch up after a stall
+	private static final int MAX_CATCH_UP_TICKS = 3;
+
+	private final Shard[] shards;
+	private final double tickRate;
+
+	// Constructor starts the given number of shards ticking at a tick rate
+	public MatchServer(int shardCount, double tickRate) {
+		this.tickRate = tickRate;
+		shards = new Shard[shardCount];
+		for (int i = 0; i < shardCount; i++) {
+			shards[i] = new Shard(i);
+			shards[i].thread.start();
+		}
+	}
+
+	// Method to start a new match with a seed, played by a controller on the least loaded shard
+	public synchronized Handle add(long seed, MatchController controller) {
+		Shard shard = shards[0];
+		for (Shard s : shards) {
+			if (s.assigned < shard.assigned) {
+				shard = s;
+			}
+		}
+		Handle handle = new Handle(new Match(seed, tickRate), controller, shard);
+		shard.assigned++;
+		shard.changes.add(handle);
+		return handle;
+	}
+
+	// Method to stop a match, it is removed before the next tick of its shard
+	public synchronized void remove(Handle handle) {
+		if (!handle.removed) {
+			handle.removed = true;
+			handle.shard.assigned--;
+			handle.shard.changes.add(handle);
+		}
+	}
+
+	// Method to get the number of shards
+	public int getShardCount() {
+		return shards.length;
+	}
+
+	// Method to get the total number of tick deadlines missed by all shards
+	public long getDeadlineMisses() {
+		long misses = 0;
+		for (Shard shard : shards) {
+			misses += shard.misses + shard.scheduler.getDroppedTicks();
+		}
+		return misses;
+	}
+
+	// Method to get the share of time the busiest shard spent ticking in the last second
+	public double getMaxBusy() {
+		double busy = 0;
+		for (Shard shard : shards) {
+			busy = Math.max(busy, shard.busy);
+		}
+		return busy;
+	}
+
+	// Method to describe every shard in one line each
+	public String report() {
+		StringBuilder report = new StringBuilder();
+		for (Shard shard : shards) {
+			report.append(String.format("shard %d: %d matches, %s, busy %.1f%%, tick round avg %.3f ms, misses %d%n",
+					shard.index, shard.count, shard.scheduler.report(), shard.busy * 100, shard.roundMillis,
+					shard.misses));
+		}
+		return report.toString();
+	}
+
+	@Override
+	public void close() {
+		for (Shard shard : shards) {
+			shard.running = false;
+		}
+		for (Shard shard : shards) {
+			try {
+				shard.thread.join(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	// A match running on the server
+	public static class Handle {
+		public final Match match;
+		private final MatchController controller;
+		private final Shard shard;
+		private boolean removed;
+
+		private Handle(Match match, MatchController controller, Shard shard) {
+			this.match = match;
+			this.controller = controller;
+			this.shard = shard;
+		}
+	}
+
+	// One thread ticking a share of the matches
+	private class Shard implements Runnable {
+		final int index;
+		final Thread thread;
+		final FrameScheduler scheduler;
+		// Matches to add or remove, handed over from other threads
+		final ConcurrentLinkedQueue<Handle> changes = new ConcurrentLinkedQueue<>();
+		// Matches of this shard and their controllers, only touched by the shard thread
+		Match[] matches = new Match[256];
+		MatchController[] controllers = new MatchController[256];
+		Handle[] handles = new Handle[256];
+		volatile int count;
+		// Matches given to this shard, guarded by the server
+		int assigned;
+
+		volatile boolean running = true;
+		volatile long misses;
+		volatile double busy;
+		volatile double roundMillis;
+
+		Shard(int index) {
+			this.index = index;
+			scheduler = new FrameScheduler(tickRate, MAX_CATCH_UP_TICKS);
+			thread = new Thread(this, "match-shard-" + index);
+			thread.setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			long windowStart = System.nanoTime();
+			long windowWork = 0;
+			long windowRounds = 0;
+			while (running) {
+				int due = scheduler.awaitTicks();
+				long start = System.nanoTime();
+				applyChanges();
+				for (int t = 0; t < due; t++) {
+					tickAll();
+				}
+				long end = System.nanoTime();
+				if (end - scheduler.getNextTickNanos() > 0) {
+					misses++; // Still ticking when the next round was due
+				}
+
+				windowWork += end - start;
+				windowRounds++;
+				if (end - windowStart >= 1_000_000_000L) {
+					busy = (double) windowWork / (end - windowStart);
+					roundMillis = windowWork / 1e6 / windowRounds;
+					windowStart = end;
+					windowWork = 0;
+					windowRounds = 0;
+				}
+			}
+		}
+
+		// Method to advance every match of this shard by one tick
+		private void tickAll() {
+			Match[] matches = this.matches;
+			MatchController[] controllers = this.controllers;
+			int n = count;
+			for (int i = 0; i < n; i++) {
+				Match match = matches[i];
+				match.tick(controllers[i].inputs(match));
+			}
+		}
+
+		// Method to add and remove the matches handed over since the last tick
+		private void applyChanges() {
+			Handle handle;
+			while ((handle = changes.poll()) != null) {
+				if (handle.removed) {
+					for (int i = 0; i < count; i++) {
+						if (handles[i] == handle) {
+							int last = count - 1; // Move the last match into the free place
+							matches[i] = matches[last];
+							controllers[i] = controllers[last];
+							handles[i] = handles[last];
+							matches[last] = null;
+							controllers[last] = null;
+							handles[last] = null;
+							count = last;
+							break;
+						}
+					}
+				} else {
+					if (count == matches.length) {
+						matches = Arrays.copyOf(matches, count * 2);
+						controllers = Arrays.copyOf(controllers, count * 2);
+						handles = Arrays.copyOf(handles, count * 2);
+					}
+					matches[count] = handle.match;
+					controllers[count] = handle.controller;
+					handles[count] = handle;
+					count++;
+				}
+			}
+		}
+	}
+}
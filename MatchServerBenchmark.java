@@ -0,0 +1,72 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class measures how many matches the match server holds per core at a steady tick rate. It
+ * keeps adding matches, played by simple paddles that follow the ball, and after each step checks
+ * the deadline misses and how busy the shards were. It stops at the first step with misses or with
+ * a shard busy for more than 90% of the time, and prints the last step that held the rate.
+ * Usage: java -Djava.awt.headless=true MatchServerBenchmark [shards] [matches per step] [seconds per step]
+ */
+
+class MatchServerBenchmark {
+	// Highest share of time a shard may spend ticking and still count as steady
+	private static final double MAX_BUSY = 0.9;
+
+	public static void main(String[] args) throws Exception {
+		int shards = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int step = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+		double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 3;
+		int tickRate = Integer.getInteger("pong.tickRate", 60);
+
+		// Paddles that follow the ball, serve straight away and start again after a win
+		MatchController follower = match -> {
+			int inputs = match.gameOver ? Match.RESTART : match.gameStarted ? 0 : Match.SERVE;
+			double ballY = match.ball.posY + PlayerBall.BALL_DIAMETER / 2.0;
+			inputs |= steer(ballY, match.padel1, Match.P1_UP, Match.P1_DOWN);
+			inputs |= steer(ballY, match.padel2, Match.P2_UP, Match.P2_DOWN);
+			return inputs;
+		};
+
+		System.out.printf("%d shards at %d Hz, %d matches per step, %.0f s per step%n", shards, tickRate, step,
+				seconds);
+		try (MatchServer server = new MatchServer(shards, tickRate)) {
+			int matches = 0;
+			int steady = 0;
+			double steadyBusy = 0;
+			long seed = 1;
+			while (true) {
+				for (int i = 0; i < step; i++) {
+					server.add(seed++, follower);
+				}
+				matches += step;
+				Thread.sleep(1500); // Let the new matches settle in and a busy window pass
+				long missesBefore = server.getDeadlineMisses();
+				Thread.sleep((long) (seconds * 1000));
+				long misses = server.getDeadlineMisses() - missesBefore;
+				double busy = server.getMaxBusy();
+				System.out.printf("%7d matches: busiest shard %.1f%%, %d deadline misses%n", matches, busy * 100,
+						misses);
+				if (misses > 0 || busy > MAX_BUSY) {
+					break;
+				}
+				steady = matches;
+				steadyBusy = busy;
+			}
+
+			System.out.print(server.report());
+			System.out.printf("steady at %d Hz: %d matches, %d per core (busiest shard %.1f%%)%n", tickRate, steady,
+					steady / shards, steadyBusy * 100);
+		}
+	}
+
+	// Method to move a paddle towards the ball
+	private static int steer(double ballY, Padel padel, int up, int down) {
+		double center = padel.posY + padel.height / 2.0;
+		if (ballY < center - 20) {
+			return up;
+		} else if (ballY > center + 20) {
+			return down;
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,275 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class plays huge numbers of headless matches between computer players on every core to see
+ * how the physics constants change the game. It sweeps a grid of rules in one run, splits the
+ * matches of each grid point into fork/join tasks with their own seeded random numbers, and only
+ * keeps running totals, so memory does not grow with the number of matches. Each grid point is
+ * printed as soon as it is done.
+ *
+ * Usage: java -Djava.awt.headless=true MatchSimulator [name=value,value,...]...
+ *   ball, paddle, width, spin, score   rule values to sweep (default: the game's rules)
+ *   matches                            matches per grid point (default 100000)
+ *   players                            levels of the two computer players (default NORMAL,NORMAL)
+ *   seed                               seed of the whole run (default 1)
+ * Example: java MatchSimulator ball=400,540,700 spin=0,60,120 matches=1000000
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+class MatchSimulator {
+	// Matches played by one task without splitting it further
+	private static final int MATCHES_PER_TASK = 500;
+	// Longest a match may last before it counts as a draw, in seconds of play
+	private static final int MAX_MATCH_SECONDS = 600;
+	// Rally lengths counted one by one for the percentiles, longer ones share the last bucket
+	private static final int RALLY_BUCKETS = 256;
+
+	public static void main(String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			int equals = arg.indexOf('=');
+			if (equals < 0) {
+				System.out.println("expected name=value, got " + arg);
+				return;
+			}
+			options.put(arg.substring(0, equals), arg.substring(equals + 1));
+		}
+		MatchRules defaults = MatchRules.DEFAULT;
+		double[] balls = values(options.remove("ball"), defaults.ballSpeed);
+		double[] paddles = values(options.remove("paddle"), defaults.padelSpeed);
+		double[] widths = values(options.remove("width"), defaults.padelWidth);
+		double[] spins = values(options.remove("spin"), defaults.spinVariation);
+		double[] scores = values(options.remove("score"), defaults.winningScore);
+		long matches = Long.parseLong(options.getOrDefault("matches", "100000"));
+		long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+		String[] players = options.getOrDefault("players", "NORMAL,NORMAL").toUpperCase().split(",");
+		CpuPlayer.Level level1 = CpuPlayer.Level.valueOf(players[0]);
+		CpuPlayer.Level level2 = CpuPlayer.Level.valueOf(players.length > 1 ? players[1] : players[0]);
+		int tickRate = Integer.getInteger("pong.tickRate", 60);
+		options.keySet().removeAll(List.of("matches", "seed", "players"));
+		if (!options.isEmpty()) {
+			System.out.println("unknown options " + options.keySet());
+			return;
+		}
+
+		List<MatchRules> grid = new ArrayList<>();
+		for (double ball : balls) {
+			for (double paddle : paddles) {
+				for (double width : widths) {
+					for (double spin : spins) {
+						for (double score : scores) {
+							grid.add(new MatchRules(ball, paddle, (int) width, spin, (int) score));
+						}
+					}
+				}
+			}
+		}
+
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		System.out.printf("%d grid points x %d matches, %s vs %s at %d Hz on %d threads%n", grid.size(), matches,
+				level1, level2, tickRate, pool.getParallelism());
+		long start = System.nanoTime();
+		long totalTicks = 0;
+		for (int i = 0; i < grid.size(); i++) {
+			long pointStart = System.nanoTime();
+			Stats stats = pool.invoke(new Batch(grid.get(i), tickRate, level1, level2, mix(seed, i), 0, matches));
+			double seconds = (System.nanoTime() - pointStart) / 1e9;
+			totalTicks += stats.ticks;
+			System.out.println(grid.get(i) + ": " + stats.report(tickRate, seconds));
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%d matches in %.1f s, %.0f matches/s, %.0f ticks/s%n", matches * grid.size(), seconds,
+				matches * grid.size() / seconds, totalTicks / seconds);
+	}
+
+	// Method to parse a comma separated list of values, or use the default
+	private static double[] values(String list, double fallback) {
+		if (list == null) {
+			return new double[] { fallback };
+		}
+		String[] parts = list.split(",");
+		double[] values = new double[parts.length];
+		for (int i = 0; i < parts.length; i++) {
+			values[i] = Double.parseDouble(parts[i].trim());
+		}
+		return values;
+	}
+
+	// Method to derive an independent seed from a seed and an index (SplitMix64 finalizer)
+	private static long mix(long seed, long index) {
+		long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	// Task playing a range of matches of one grid point, split in halves until small enough. Everything
+	// it needs is passed in, so several simulations can run at once.
+	@SuppressWarnings("serial")
+	private static class Batch extends RecursiveTask<Stats> {
+		private final MatchRules rules;
+		private final int tickRate;
+		private final CpuPlayer.Level level1;
+		private final CpuPlayer.Level level2;
+		private final long seed;
+		private final long first;
+		private final long count;
+
+		Batch(MatchRules rules, int tickRate, CpuPlayer.Level level1, CpuPlayer.Level level2, long seed, long first,
+				long count) {
+			this.rules = rules;
+			this.tickRate = tickRate;
+			this.level1 = level1;
+			this.level2 = level2;
+			this.seed = seed;
+			this.first = first;
+			this.count = count;
+		}
+
+		@Override
+		protected Stats compute() {
+			if (count > MATCHES_PER_TASK) {
+				long half = count / 2;
+				Batch left = new Batch(rules, tickRate, level1, level2, seed, first, half);
+				left.fork();
+				Stats right = new Batch(rules, tickRate, level1, level2, seed, first + half, count - half).compute();
+				return right.merge(left.join());
+			}
+
+			// The seed depends on the range only, so results do not depend on which thread runs it
+			SplittableRandom random = new SplittableRandom(mix(seed, first));
+			Stats stats = new Stats();
+			long maxTicks = (long) MAX_MATCH_SECONDS * tickRate;
+			for (long m = 0; m < count; m++) {
+				Match match = new Match(random.nextLong(), tickRate, rules);
+				CpuPlayer player1 = new CpuPlayer(1, level1, random.nextLong());
+				CpuPlayer player2 = new CpuPlayer(2, level2, random.nextLong());
+				stats.match = match;
+				match.setListener(stats);
+				while (!match.gameOver && match.tick < maxTicks) {
+					match.tick(player1.inputs(match) | player2.inputs(match));
+				}
+				stats.matchEnded(match);
+			}
+			stats.match = null;
+			return stats;
+		}
+	}
+
+	// Running totals of many matches, fed by the events of the match being played
+	private static class Stats implements MatchListener {
+		Match match;
+		private int server;
+		private int rally;
+
+		long matches, draws, player1Wins, player2Wins, ticks;
+		double tickSquares;
+		long points, serveWins;
+		long rallyTotal, rallyMax;
+		final long[] rallies = new long[RALLY_BUCKETS];
+		double speedTotal, speedSquares, speedMax;
+
+		@Override
+		public void served() {
+			server = match.lastWinningPlayer;
+			rally = 0;
+		}
+
+		@Override
+		public void bounced(int player) {
+			if (player != 0) {
+				rally++; // Count paddle hits only
+			}
+		}
+
+		@Override
+		public void scored(int player) {
+			points++;
+			if (player == server) {
+				serveWins++;
+			}
+			rallyTotal += rally;
+			rallyMax = Math.max(rallyMax, rally);
+			rallies[Math.min(rally, RALLY_BUCKETS - 1)]++;
+			double speed = Math.hypot(match.ball.xVelocity, match.ball.yVelocity);
+			speedTotal += speed;
+			speedSquares += speed * speed;
+			speedMax = Math.max(speedMax, speed);
+		}
+
+		// Method to count a finished (or abandoned) match
+		void matchEnded(Match match) {
+			matches++;
+			if (match.winner == 0) {
+				draws++;
+			} else if (match.winner == 1) {
+				player1Wins++;
+			} else {
+				player2Wins++;
+			}
+			ticks += match.tick;
+			tickSquares += (double) match.tick * match.tick;
+		}
+
+		// Method to add the totals of another part of the run, returns this
+		Stats merge(Stats other) {
+			matches += other.matches;
+			draws += other.draws;
+			player1Wins += other.player1Wins;
+			player2Wins += other.player2Wins;
+			ticks += other.ticks;
+			tickSquares += other.tickSquares;
+			points += other.points;
+			serveWins += other.serveWins;
+			rallyTotal += other.rallyTotal;
+			rallyMax = Math.max(rallyMax, other.rallyMax);
+			for (int i = 0; i < RALLY_BUCKETS; i++) {
+				rallies[i] += other.rallies[i];
+			}
+			speedTotal += other.speedTotal;
+			speedSquares += other.speedSquares;
+			speedMax = Math.max(speedMax, other.speedMax);
+			return this;
+		}
+
+		// Method to find the rally length below which a share of the points ended
+		private int rallyPercentile(double p) {
+			if (points == 0) {
+				return 0;
+			}
+			long target = (long) Math.ceil(p * points);
+			long seen = 0;
+			for (int i = 0; i < RALLY_BUCKETS; i++) {
+				seen += rallies[i];
+				if (seen >= target && seen > 0) {
+					return i;
+				}
+			}
+			return RALLY_BUCKETS - 1;
+		}
+
+		// Method to describe the totals in one line. Matches still running at the time limit are draws and
+		// are not counted as wins of either player.
+		String report(int tickRate, double seconds) {
+			double meanTicks = (double) ticks / matches;
+			double duration = meanTicks / tickRate;
+			double durationDeviation = Math.sqrt(Math.max(0, tickSquares / matches - meanTicks * meanTicks)) / tickRate;
+			double speed = points == 0 ? 0 : speedTotal / points;
+			double speedDeviation = points == 0 ? 0 : Math.sqrt(Math.max(0, speedSquares / points - speed * speed));
+			return String.format("rally avg %.2f (p50 %d, p99 %d, max %d), end speed %.0f +- %.0f (max %.0f),"
+					+ " serve wins %.1f%%, duration %.1f +- %.1f s, player 1 wins %.1f%%, player 2 wins %.1f%%,"
+					+ " draws %.1f%%, %.0f matches/s", points == 0 ? 0.0 : (double) rallyTotal / points,
+					rallyPercentile(0.5), rallyPercentile(0.99), rallyMax, speed, speedDeviation, speedMax,
+					points == 0 ? 0.0 : 100.0 * serveWins / points, duration, durationDeviation,
+					100.0 * player1Wins / matches, 100.0 * player2Wins / matches, 100.0 * draws / matches,
+					matches / seconds);
+		}
+	}
+}
@@ -5,14 +5,6 @@
  */
 
 import java.awt.*;
-import java.io.File;
-import java.io.IOException;
-
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
-import javax.sound.sampled.LineUnavailableException;
-import javax.sound.sampled.UnsupportedAudioFileException;
 import javax.swing.*;
 
 class MoreInfoPage extends JPanel {
@@ -41,12 +33,8 @@ class MoreInfoPage extends JPanel {
 		backButton.setPreferredSize(new Dimension(80, 50));
 		backButton.setBorder(BorderFactory.createLineBorder(Color.BLACK));
 		backButton.addActionListener(e -> {
-			playSound("Music/Click.wav"); // Play sound on button click
-			parentFrame.remove(this); // Remove the MoreInfoPage panel
-			parentFrame.createStartPanel(); // Recreate the start panel
-			parentFrame.add(parentFrame.startPanel); // Add the start panel to the frame
-			parentFrame.revalidate(); // Refresh the frame
-			parentFrame.repaint(); // Repaint the frame
+			SoundEffects.play(SoundEffects.CLICK); // Play sound on button click
+			parentFrame.showStartPanel(); // Go back to the start panel, which is kept between visits
 		});
 
 		// Create panel for horizontal alignment
@@ -67,7 +55,7 @@ class MoreInfoPage extends JPanel {
 		contentPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
 		// Create section panel for rules and add to content panel
-		rulesPanel = createSectionPanel("Rules", "1. Serve the ball by pressing SPACE.\n\n"
+		rulesPanel = createSectionPanel("Rules", "1. Serve the ball by pressing " + KeyBindings.describe(KeyBindings.SERVE).toUpperCase() + ".\n\n"
 				+ "2. Use the paddles to hit the ball back and forth.\n\n"
 				+ "3. The ball bounces off the top and bottom walls.\n\n"
 				+ "4. The game ends when a player scores 5 points.\n\n"
@@ -78,8 +66,7 @@ class MoreInfoPage extends JPanel {
 		contentPanel.add(rulesPanel);
 
 		// Create section panel for controls and add to content panel
-		controlsPanel = createSectionPanelWithKeys("Controls", "Player 1:\nW - Move up\nS - Move down",
-				"Player 2:\nI - Move up\nK - Move down");
+		controlsPanel = createSectionPanelWithKeys("Controls");
 		contentPanel.add(controlsPanel);
 
 		// Add content panel to the center region of the MoreInfoPage
@@ -113,7 +100,7 @@ class MoreInfoPage extends JPanel {
 	}
 
 	// Method to create a panel section with controls for both players
-	private JPanel createSectionPanelWithKeys(String headerText, String contentText1, String contentText2) {
+	private JPanel createSectionPanelWithKeys(String headerText) {
 		JPanel panel = new JPanel(new BorderLayout()); // Create a JPanel with BorderLayout
 		panel.setBackground(Color.WHITE); // Set the background color of the panel to white
 		panel.setBorder(BorderFactory.createCompoundBorder( // Set a compound border for the panel
@@ -130,8 +117,12 @@ class MoreInfoPage extends JPanel {
 		contentPanel.setOpaque(false); // Make the content panel transparent
 
 		// Create control panels for player 1 and player 2
-		JPanel player1Panel = createControlPanel("Player 1 (Left Padel)", "W - Move up", "S - Move down");
-		JPanel player2Panel = createControlPanel("Player 2 (Right Padel)", "I - Move up", "K - Move down");
+		JPanel player1Panel = createControlPanel("Player 1 (Left Padel)",
+				KeyBindings.describe(KeyBindings.PLAYER1_UP) + " - Move up",
+				KeyBindings.describe(KeyBindings.PLAYER1_DOWN) + " - Move down");
+		JPanel player2Panel = createControlPanel("Player 2 (Right Padel)",
+				KeyBindings.describe(KeyBindings.PLAYER2_UP) + " - Move up",
+				KeyBindings.describe(KeyBindings.PLAYER2_DOWN) + " - Move down");
 
 		contentPanel.add(player1Panel); // Add the control panel for player 1 to the content panel
 		contentPanel.add(player2Panel); // Add the control panel for player 2 to the content panel
@@ -173,18 +164,4 @@ class MoreInfoPage extends JPanel {
 		return panel; // Return the created control panel
 	}
 
-	// Method to play short sound effects
-	private void playSound(String soundFile) {
-		try {
-			File file = new File(soundFile); // Create a File object with the specified sound file path
-			AudioInputStream audioStream = AudioSystem.getAudioInputStream(file); // Get an audio input stream from the
-																					// file
-			Clip clip = AudioSystem.getClip(); // Get a Clip object for playing audio
-			clip.open(audioStream); // Open the audio clip
-			clip.start(); // Start playing the audio clip
-		} catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
-			e.printStackTrace(); // Print stack trace if an exception occurs
-		}
-	}
-
 }
@@ -0,0 +1,144 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class is a non-blocking UDP connection to one other player. To test network play on one
+ * machine it can pretend to be a bad network: outgoing packets are held back for a latency plus a
+ * random jitter (so they may also arrive out of order) and a share of them is dropped.
+ * Held back packets are copied into preallocated slots, so sending never allocates.
+ */
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.SplittableRandom;
+
+public class NetLink implements AutoCloseable {
+
+	// Largest packet that can be sent or received
+	public static final int MAX_PACKET = 512;
+	// Number of packets that can be held back at once
+	private static final int MAX_PENDING = 1024;
+
+	// Socket connected to the other player
+	private final DatagramChannel channel;
+
+	// Simulated network conditions
+	private final long latencyNanos;
+	private final long jitterNanos;
+	private final double loss;
+	private final SplittableRandom random = new SplittableRandom();
+
+	// Packets held back and the time each one is due to be sent
+	private final ByteBuffer[] pending = new ByteBuffer[MAX_PENDING];
+	private final long[] due = new long[MAX_PENDING];
+	private int pendingCount;
+
+	// Statistics
+	private long sent;
+	private long received;
+	private long dropped;
+
+	// Constructor binds to a local port and connects to the other player, with the given latency,
+	// jitter (both in milliseconds) and share of packets lost
+	public NetLink(int localPort, SocketAddress peer, double latencyMillis, double jitterMillis, double loss)
+			throws IOException {
+		channel = DatagramChannel.open();
+		channel.bind(new InetSocketAddress(localPort));
+		channel.connect(peer);
+		channel.configureBlocking(false);
+		latencyNanos = (long) (latencyMillis * 1e6);
+		jitterNanos = (long) (jitterMillis * 1e6);
+		this.loss = loss;
+		for (int i = 0; i < MAX_PENDING; i++) {
+			pending[i] = ByteBuffer.allocate(MAX_PACKET);
+		}
+	}
+
+	// Method to parse an address written as host:port
+	public static SocketAddress parseAddress(String address) {
+		int colon = address.lastIndexOf(':');
+		if (colon < 0) {
+			throw new IllegalArgumentException("expected host:port, got " + address);
+		}
+		return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+	}
+
+	// Method to send a packet, from its position to its limit
+	public void send(ByteBuffer packet) throws IOException {
+		if (loss > 0 && random.nextDouble() < loss) {
+			dropped++; // Lost on the way
+			return;
+		}
+		if (latencyNanos == 0 && jitterNanos == 0) {
+			write(packet);
+			return;
+		}
+		if (pendingCount == MAX_PENDING) {
+			dropped++; // Too many packets in flight, the network drops it
+			return;
+		}
+
+		ByteBuffer slot = pending[pendingCount];
+		slot.clear();
+		slot.put(packet);
+		slot.flip();
+		due[pendingCount++] = System.nanoTime() + latencyNanos
+				+ (jitterNanos > 0 ? random.nextLong(jitterNanos + 1) : 0);
+	}
+
+	// Method to send the held back packets that are due
+	public void flush() throws IOException {
+		long now = System.nanoTime();
+		for (int i = 0; i < pendingCount;) {
+			if (due[i] - now > 0) {
+				i++;
+				continue;
+			}
+			write(pending[i]);
+			// Move the last held back packet into the free slot
+			pendingCount--;
+			ByteBuffer slot = pending[i];
+			pending[i] = pending[pendingCount];
+			pending[pendingCount] = slot;
+			due[i] = due[pendingCount];
+		}
+	}
+
+	// Method to receive one packet into a buffer, returns false if none is waiting
+	public boolean receive(ByteBuffer packet) throws IOException {
+		packet.clear();
+		try {
+			if (channel.read(packet) <= 0) {
+				return false;
+			}
+		} catch (PortUnreachableException e) {
+			return false; // The other player is not listening yet
+		}
+		packet.flip();
+		received++;
+		return true;
+	}
+
+	// Method to write a packet to the socket
+	private void write(ByteBuffer packet) throws IOException {
+		try {
+			channel.write(packet);
+			sent++;
+		} catch (PortUnreachableException e) {
+			dropped++; // The other player is not listening yet
+		}
+	}
+
+	// Method to describe the traffic so far
+	public String report() {
+		return String.format("sent %d, received %d, dropped %d", sent, received, dropped);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,420 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class plays a match against another machine over UDP with rollback. Only inputs are sent.
+ * Each side simulates straight away, predicting that the other player keeps holding the keys they
+ * last held. When the real input arrives and differs from the prediction, the match is rolled back
+ * to the saved state of that tick and simulated again up to the present. Sounds and effects are
+ * heard straight away (but not again during a rollback), while serves, points and wins are only
+ * reported as results once both players' inputs for their tick are known, so a result is never
+ * taken back.
+ *
+ * Saved states and inputs live in preallocated rings of RING ticks, so a tick never allocates.
+ * Player 1 hosts: it sends its match state until player 2 answers, so both start identically.
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class NetPlay implements AutoCloseable {
+
+	// Packet types
+	private static final byte HELLO = 0;
+	private static final byte INPUT = 1;
+
+	// Input bits of one player: paddle up and down, serve and restart
+	private static final int UP = 1;
+	private static final int DOWN = 2;
+	private static final int SERVE = 4;
+	private static final int RESTART = 8;
+
+	// Number of ticks of states and inputs kept
+	private static final int RING = 64;
+	// Most ticks the match may run ahead of the other player's last known input
+	private static final int MAX_PREDICTION = 20;
+	// Most ticks between reading a key and applying it
+	public static final int MAX_INPUT_DELAY = 10;
+	// Fewest ticks between two pauses that let the other player catch up
+	private static final int SYNC_SPACING = 6;
+	// Time between two hello packets while connecting
+	private static final long HELLO_NANOS = 100_000_000L;
+	// Results waiting for their tick to be confirmed, at most one serve, point and win per tick
+	private static final int MAX_RESULTS = RING * 3;
+	private static final byte SERVED = 0;
+	private static final byte SCORED = 1;
+	private static final byte WON = 2;
+
+	// The match, the connection and which player this machine controls
+	private final Match match;
+	private final NetLink link;
+	private final int player;
+	// Ticks between reading a key and applying it, hides part of the latency without rollback
+	private final int inputDelay;
+	private final int tickRate;
+
+	// Saved match state at the start of each tick
+	private final ByteBuffer states = ByteBuffer.allocate(RING * Match.STATE_BYTES);
+	// Local inputs, remote inputs received, and remote inputs each tick was simulated with
+	private final byte[] localInputs = new byte[RING];
+	private final byte[] remoteInputs = new byte[RING];
+	private final byte[] usedInputs = new byte[RING];
+	// Last tick with a local input, last tick with a known remote input, and the last local
+	// tick the other player has received
+	private long localLast;
+	private long remoteLast;
+	private long remoteAck = -1;
+	// Latest tick of the other player and how far ahead of us it says it is
+	private long remoteTick = -1;
+	private int remoteAdvantage;
+	// Earliest tick that was simulated with a wrong prediction
+	private long rollbackFrom = Long.MAX_VALUE;
+	// Serve and restart presses that could not be used yet because the match was waiting
+	private int heldEdges;
+
+	// Who hears about sounds and effects, and who hears about results, and whether the match is
+	// being simulated again after a misprediction
+	private MatchListener effects = MatchListener.NONE;
+	private MatchListener results = MatchListener.NONE;
+	private boolean rollingBack;
+	// Results of ticks that are not confirmed yet, oldest first: kind, player and tick of each
+	private final byte[] resultKinds = new byte[MAX_RESULTS];
+	private final byte[] resultPlayers = new byte[MAX_RESULTS];
+	private final long[] resultTicks = new long[MAX_RESULTS];
+	private int resultHead;
+	private int resultCount;
+
+	// Buffers for packets, reused for every packet
+	private final ByteBuffer outgoing = ByteBuffer.allocate(NetLink.MAX_PACKET);
+	private final ByteBuffer incoming = ByteBuffer.allocate(NetLink.MAX_PACKET);
+
+	private boolean connected;
+	private long lastHello;
+	private long lastSyncStall;
+
+	// Statistics
+	private long rollbacks;
+	private long resimulatedTicks;
+	private int maxRollback;
+	private long predictionStalls;
+	private long syncStalls;
+
+	// Constructor plays the given match as player 1 or 2 over a connection
+	public NetPlay(Match match, NetLink link, int player, int inputDelay, int tickRate) {
+		if (player != 1 && player != 2) {
+			throw new IllegalArgumentException("player must be 1 or 2");
+		}
+		if (inputDelay < 0 || inputDelay > MAX_INPUT_DELAY) {
+			throw new IllegalArgumentException("input delay must be from 0 to " + MAX_INPUT_DELAY);
+		}
+		this.match = match;
+		this.link = link;
+		this.player = player;
+		this.inputDelay = inputDelay;
+		this.tickRate = tickRate;
+		localLast = inputDelay - 1; // The first ticks run without local input
+		remoteLast = -1;
+		effects = match.getListener();
+		match.setListener(new MatchListener() {
+			@Override
+			public void served() {
+				if (!rollingBack) {
+					effects.served();
+				}
+				addResult(SERVED, 0);
+			}
+
+			@Override
+			public void bounced(int player) {
+				if (!rollingBack) {
+					effects.bounced(player);
+				}
+			}
+
+			@Override
+			public void scored(int player) {
+				if (!rollingBack) {
+					effects.scored(player);
+				}
+				addResult(SCORED, player);
+			}
+
+			@Override
+			public void won(int player) {
+				if (!rollingBack) {
+					effects.won(player);
+				}
+				addResult(WON, player);
+			}
+		});
+	}
+
+	// Method to set who hears about sounds and effects straight away, and who hears about serves,
+	// points and wins once the other player has confirmed their tick
+	public void setListeners(MatchListener effects, MatchListener results) {
+		this.effects = effects == null ? MatchListener.NONE : effects;
+		this.results = results == null ? MatchListener.NONE : results;
+	}
+
+	// Method to check if both machines are playing
+	public boolean isConnected() {
+		return connected;
+	}
+
+	// Method to advance the match by one tick with the local input bits (in Match bits, using the
+	// keys of either paddle), returns false if the match has to wait for the other player
+	public boolean advance(int inputs) throws IOException {
+		heldEdges |= toPlayer(inputs) & (SERVE | RESTART);
+		int local = (toPlayer(inputs) & (UP | DOWN)) | heldEdges;
+		poll();
+		if (!connected) {
+			sendHello();
+			return false;
+		}
+		if (rollbackFrom < match.tick) {
+			rollback();
+		}
+		reportResults(remoteLast); // Every tick up to here was simulated with the real input of both players
+
+		long tick = match.tick;
+		if (tick - remoteLast > MAX_PREDICTION || localLast + 1 - remoteAck >= RING) {
+			predictionStalls++; // Too far ahead of what we know about the other player
+			sendInputs();
+			return false;
+		}
+		int advantage = (int) (tick - remoteTick); // How far we are ahead of the other player
+		if (remoteTick >= 0 && (advantage - remoteAdvantage) / 2 >= 1
+				&& tick - lastSyncStall >= SYNC_SPACING) {
+			syncStalls++; // Running ahead of the other player's clock, give it a tick to catch up
+			lastSyncStall = tick;
+			sendInputs();
+			return false;
+		}
+
+		localLast = tick + inputDelay;
+		localInputs[ring(localLast)] = (byte) local;
+		heldEdges = 0;
+		simulate(tick);
+		sendInputs();
+		return true;
+	}
+
+	// Method to read incoming packets and roll back if needed, returns true when every tick played
+	// so far has been simulated with the real input of both players
+	public boolean synchronize() throws IOException {
+		poll();
+		if (!connected) {
+			sendHello();
+			return false;
+		}
+		if (rollbackFrom < match.tick) {
+			rollback();
+		}
+		reportResults(remoteLast); // Every tick up to here was simulated with the real input of both players
+		sendInputs();
+		return remoteLast >= match.tick - 1 && remoteAck >= localLast;
+	}
+
+	// Method to save the state of a tick and simulate it
+	private void simulate(long tick) {
+		int index = ring(tick);
+		states.position(index * Match.STATE_BYTES);
+		match.saveState(states);
+
+		int remote;
+		if (tick <= remoteLast) {
+			remote = remoteInputs[index];
+		} else {
+			remote = remoteInputs[ring(remoteLast)] & (UP | DOWN); // Predict the keys stay held
+		}
+		usedInputs[index] = (byte) remote;
+		int local = localInputs[index];
+		match.tick(player == 1 ? toMatch(local, remote) : toMatch(remote, local));
+	}
+
+	// Method to load the state of the earliest mispredicted tick and simulate up to the present
+	private void rollback() {
+		long present = match.tick;
+		int depth = (int) (present - rollbackFrom);
+		states.position(ring(rollbackFrom) * Match.STATE_BYTES);
+		match.loadState(states);
+
+		// Results of the mispredicted ticks are dropped and found again, sounds of ticks that
+		// already played are not played again
+		while (resultCount > 0 && resultTicks[(resultHead + resultCount - 1) % MAX_RESULTS] >= rollbackFrom) {
+			resultCount--;
+		}
+		rollingBack = true;
+		while (match.tick < present) {
+			simulate(match.tick);
+		}
+		rollingBack = false;
+
+		rollbacks++;
+		resimulatedTicks += depth;
+		maxRollback = Math.max(maxRollback, depth);
+		rollbackFrom = Long.MAX_VALUE;
+	}
+
+	// Method to keep a result of the tick being simulated until the tick is confirmed
+	private void addResult(byte kind, int player) {
+		if (resultCount == MAX_RESULTS) {
+			return; // Cannot happen, the match never runs more than RING ticks ahead
+		}
+		int index = (resultHead + resultCount++) % MAX_RESULTS;
+		resultKinds[index] = kind;
+		resultPlayers[index] = (byte) player;
+		resultTicks[index] = match.tick;
+	}
+
+	// Method to report the waiting results up to a tick, in the order they happened
+	private void reportResults(long lastTick) {
+		while (resultCount > 0 && resultTicks[resultHead] <= lastTick) {
+			byte kind = resultKinds[resultHead];
+			int player = resultPlayers[resultHead];
+			resultHead = (resultHead + 1) % MAX_RESULTS;
+			resultCount--;
+			if (kind == SERVED) {
+				results.served();
+			} else if (kind == SCORED) {
+				results.scored(player);
+			} else {
+				results.won(player);
+			}
+		}
+	}
+
+	// Method to stop playing over the network and keep playing the match on this machine: every
+	// waiting result becomes final, and the match reports straight to both listeners again
+	public void detach() {
+		reportResults(Long.MAX_VALUE);
+		match.setListener(MatchListener.both(effects, results));
+	}
+
+	// Method to read every waiting packet
+	private void poll() throws IOException {
+		link.flush(); // Send held back packets that are due
+		while (link.receive(incoming)) {
+			if (incoming.remaining() < 1) {
+				continue;
+			}
+			byte type = incoming.get();
+			if (type == HELLO) {
+				readHello();
+			} else if (type == INPUT && incoming.remaining() >= 8 + 8 + 1 + 8 + 1) {
+				if (player == 1) {
+					connected = true; // Player 2 answered the hello
+				}
+				if (connected) {
+					readInputs();
+				}
+			}
+		}
+	}
+
+	// Method to start from the host's state (player 2 only)
+	private void readHello() {
+		if (player != 2 || connected || incoming.remaining() < 4 + Match.STATE_BYTES) {
+			return;
+		}
+		int hostRate = incoming.getInt();
+		if (hostRate != tickRate) {
+			System.err.println("Host runs at " + hostRate + " ticks/s, set pong.tickRate=" + hostRate);
+			return;
+		}
+		match.loadState(incoming);
+		connected = true;
+	}
+
+	// Method to take the other player's inputs from a packet
+	private void readInputs() {
+		remoteAck = Math.max(remoteAck, incoming.getLong());
+		long senderTick = incoming.getLong();
+		int advantage = incoming.get();
+		if (senderTick > remoteTick) {
+			remoteTick = senderTick;
+			remoteAdvantage = advantage;
+		}
+
+		long first = incoming.getLong();
+		int count = incoming.get() & 0xFF;
+		for (int i = 0; i < count && incoming.hasRemaining(); i++) {
+			long tick = first + i;
+			byte inputs = incoming.get();
+			if (tick != remoteLast + 1) {
+				continue; // Already known, packets overlap so a lost one is covered by the next
+			}
+			remoteInputs[ring(tick)] = inputs;
+			remoteLast = tick;
+			if (tick < match.tick && usedInputs[ring(tick)] != inputs) {
+				rollbackFrom = Math.min(rollbackFrom, tick); // This tick was simulated with a wrong guess
+			}
+		}
+	}
+
+	// Method to send the host's state until player 2 answers (player 1 only)
+	private void sendHello() throws IOException {
+		long now = System.nanoTime();
+		if (player != 1 || now - lastHello < HELLO_NANOS) {
+			return;
+		}
+		lastHello = now;
+		outgoing.clear();
+		outgoing.put(HELLO).putInt(tickRate);
+		match.saveState(outgoing);
+		outgoing.flip();
+		link.send(outgoing);
+	}
+
+	// Method to send every local input the other player has not confirmed yet
+	private void sendInputs() throws IOException {
+		long first = Math.max(remoteAck + 1, localLast - RING + 2);
+		int count = (int) Math.min(localLast - first + 1, 255);
+		int advantage = (int) Math.max(-127, Math.min(127, match.tick - remoteTick));
+		outgoing.clear();
+		outgoing.put(INPUT).putLong(remoteLast).putLong(match.tick).put((byte) advantage);
+		outgoing.putLong(first).put((byte) count);
+		for (int i = 0; i < count; i++) {
+			outgoing.put(localInputs[ring(first + i)]);
+		}
+		outgoing.flip();
+		link.send(outgoing);
+	}
+
+	// Method to get the ring slot of a tick
+	private static int ring(long tick) {
+		return (int) Math.floorMod(tick, (long) RING);
+	}
+
+	// Method to turn Match input bits into the bits of one player, using either paddle's keys
+	private static int toPlayer(int inputs) {
+		int keys = (inputs | inputs >> 2) & (UP | DOWN);
+		return keys | ((inputs & Match.SERVE) != 0 ? SERVE : 0) | ((inputs & Match.RESTART) != 0 ? RESTART : 0);
+	}
+
+	// Method to combine the bits of both players into Match input bits
+	private static int toMatch(int player1, int player2) {
+		int inputs = (player1 & (UP | DOWN)) | (player2 & (UP | DOWN)) << 2;
+		if (((player1 | player2) & SERVE) != 0) {
+			inputs |= Match.SERVE;
+		}
+		if (((player1 | player2) & RESTART) != 0) {
+			inputs |= Match.RESTART;
+		}
+		return inputs;
+	}
+
+	// Method to describe rollbacks, waits and traffic so far
+	public String report() {
+		return String.format(
+				"netplay player %d, %s, rollbacks %d (%.1f ticks avg, %d max), stalls %d prediction %d sync, %s",
+				player, connected ? "remote input " + Math.max(0, match.tick - 1 - remoteLast) + " ticks behind"
+						: "connecting",
+				rollbacks, rollbacks == 0 ? 0.0 : (double) resimulatedTicks / rollbacks, maxRollback,
+				predictionStalls, syncStalls, link.report());
+	}
+
+	@Override
+	public void close() throws IOException {
+		link.close();
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class tests network play on one machine. It runs two headless players over loopback through
+ * a link that adds latency, jitter and packet loss, each pressing random keys at the game's tick
+ * rate. When both reach the last tick it checks that their matches ended in exactly the same state,
+ * that both reported the same confirmed points and wins and that these add up to the final score,
+ * and prints the tick rate reached, the rollbacks and the cost of a tick.
+ * Usage: java NetPlayHarness [seconds] [latency ms] [loss]
+ */
+
+import java.nio.ByteBuffer;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+class NetPlayHarness {
+	private static final int PORT = 47100;
+
+	public static void main(String[] args) throws Exception {
+		double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 30;
+		double latency = args.length > 1 ? Double.parseDouble(args[1]) : 100;
+		double loss = args.length > 2 ? Double.parseDouble(args[2]) : 0.05;
+		int tickRate = GamePanel.TICK_RATE;
+		long ticks = (long) (seconds * tickRate);
+		System.out.printf("%d ticks at %d Hz, latency %.0f ms, jitter %.0f ms, loss %.0f%%%n", ticks, tickRate,
+				latency, latency / 5, loss * 100);
+
+		Player[] players = new Player[2];
+		for (int i = 0; i < 2; i++) {
+			NetLink link = new NetLink(PORT + i, new InetSocketAddress("127.0.0.1", PORT + 1 - i), latency,
+					latency / 5, loss);
+			players[i] = new Player(i + 1, new Match(i == 0 ? 42 : 7, tickRate), link, tickRate, ticks);
+			players[i].start();
+		}
+		for (Player p : players) {
+			p.join();
+		}
+
+		boolean same = Arrays.equals(players[0].finalState, players[1].finalState);
+		for (Player p : players) {
+			System.out.println(p.result);
+		}
+		System.out.println(same ? "final states match" : "FINAL STATES DIFFER");
+		boolean sameResults = players[0].results.toString().equals(players[1].results.toString())
+				&& players[0].resultsMatchScore() && players[1].resultsMatchScore();
+		System.out.println(sameResults ? "confirmed results match the score: " + players[0].results
+				: "CONFIRMED RESULTS DIFFER: " + players[0].results + " / " + players[1].results);
+	}
+
+	// One player pressing random keys on its own thread
+	private static class Player extends Thread {
+		private final int number;
+		private final Match match;
+		private final NetPlay net;
+		private final int tickRate;
+		private final long ticks;
+		byte[] finalState;
+		String result;
+		// Confirmed points (winner 1 or 2) and wins (W and the winner) in the order they were reported
+		final StringBuilder results = new StringBuilder();
+
+		Player(int number, Match match, NetLink link, int tickRate, long ticks) {
+			this.number = number;
+			this.match = match;
+			this.net = new NetPlay(match, link, number, 2, tickRate);
+			net.setListeners(MatchListener.NONE, new MatchListener() {
+				@Override
+				public void scored(int player) {
+					results.append(player);
+				}
+
+				@Override
+				public void won(int player) {
+					results.append('W').append(player);
+				}
+			});
+			this.tickRate = tickRate;
+			this.ticks = ticks;
+		}
+
+		@Override
+		public void run() {
+			SplittableRandom random = new SplittableRandom(number);
+			FrameScheduler scheduler = new FrameScheduler(tickRate, 1);
+			int keys = 0;
+			long slowest = 0;
+			long total = 0;
+			long calls = 0;
+			try {
+				long start = 0;
+				while (match.tick < ticks) {
+					scheduler.awaitTicks();
+					if (random.nextInt(10) == 0) {
+						keys = random.nextInt(4) & (Match.P1_UP | Match.P1_DOWN); // Change the held keys now and then
+					}
+					int inputs = keys | (random.nextInt(120) == 0 ? Match.SERVE : 0);
+					long callStart = System.nanoTime();
+					boolean wasConnected = net.isConnected();
+					net.advance(inputs);
+					long cost = System.nanoTime() - callStart;
+					if (!wasConnected) {
+						start = System.nanoTime(); // Time play from the moment both are connected
+					} else {
+						slowest = Math.max(slowest, cost);
+						total += cost;
+						calls++;
+					}
+				}
+				double elapsed = (System.nanoTime() - start) / 1e9;
+
+				long deadline = System.nanoTime() + 10_000_000_000L;
+				while (!net.synchronize() && System.nanoTime() < deadline) {
+					Thread.sleep(1); // Wait for the last inputs of the other player
+				}
+				Thread.sleep(500); // Keep answering until the other player is done as well
+				net.synchronize();
+				ByteBuffer state = ByteBuffer.allocate(Match.STATE_BYTES);
+				match.saveState(state);
+				finalState = state.array();
+				result = String.format("player %d: %.1f ticks/s, tick cost avg %.1f us max %.1f us, score %d - %d\n  %s",
+						number, match.tick / elapsed, total / 1e3 / Math.max(calls, 1), slowest / 1e3,
+						match.score.player1Score, match.score.player2Score, net.report());
+				net.close();
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		// Method to check that the confirmed points add up to the final score
+		boolean resultsMatchScore() {
+			int[] points = new int[3];
+			for (int i = 0; i < results.length(); i++) {
+				if (results.charAt(i) == 'W') {
+					i++; // Skip the winner of the match
+				} else {
+					points[results.charAt(i) - '0']++;
+				}
+			}
+			return points[1] == match.score.player1Score && points[2] == match.score.player2Score;
+		}
+	}
+}
@@ -5,75 +5,92 @@
  */
 
 import java.awt.*; 
-import java.awt.event.*; 
 
 
 public class Padel extends Rectangle {
 
-	// Velocity and speed of the paddle
-		public int yVelocity;
-		public final int SPEED = 10;
+	// Velocity and speed of the paddle in pixels per second
+		public double yVelocity;
+		public final double SPEED;
 
 		// Dimensions of the paddle
 		public static final int PADEL_LENGTH = 10;
 		public static final int PADEL_WIDTH = 150;
 		
-		//variables to store the controls for the padel
-		private char up, down;
-
 		// Temporary y-coordinate for boundary checking
-		private int tempY;
+		private double tempY;
+
+		// Exact position of the paddle, x and y are this position rounded to whole pixels
+		public double posX, posY;
+		// Position at the previous tick, and the position drawn between the previous and current tick
+		public double lastX, lastY;
+		public int drawX, drawY;
 
-		// Constructor creates paddle at given location with given dimensions
-		public Padel(int x, int y, char U, char D) {
-			super(x, y, PADEL_LENGTH, PADEL_WIDTH);
-			up = U;
-			down = D;
+		// Constructor creates paddle at given location with the speed and height the game is played with
+		public Padel(int x, int y) {
+			this(x, y, MatchRules.DEFAULT.padelSpeed, MatchRules.DEFAULT.padelWidth);
 		}
 
-		// Updates the direction of the paddle based on user input
-		
-		public void keyPressed(KeyEvent e) {
-			//move padel up when i is pressed
-			if (e.getKeyChar() == up) {
-				setYDirection(SPEED * -1);
-				move();
-			}
-			//move padel down when k is pressed
-			if (e.getKeyChar() == down) {
-				setYDirection(SPEED);
-				move();
-			}
+		// Constructor creates paddle at given location with another speed and height
+		public Padel(int x, int y, double speed, int width) {
+			super(x, y, PADEL_LENGTH, width);
+			SPEED = speed;
+			setPosition(x, y);
+			savePosition();
+			interpolate(1);
 		}
 
-		
-		// Stops the paddle movement when 'w' or 's' is released
-		public void keyReleased(KeyEvent e) {
-			if (e.getKeyChar() == up || e.getKeyChar() == down) {
-				setYDirection(0);
-				move();
+		// Updates the direction of the paddle from the controls held down in this tick
+		public void applyInput(boolean upHeld, boolean downHeld) {
+			if (upHeld && !downHeld) {
+				setYDirection(SPEED * -1); // move padel up
+			} else if (downHeld && !upHeld) {
+				setYDirection(SPEED); // move padel down
+			} else {
+				setYDirection(0); // stop when no key or both keys are held
 			}
 		}
 
 		// Sets the vertical direction of the paddle
-		public void setYDirection(int yDirection) {
+		public void setYDirection(double yDirection) {
 			yVelocity = yDirection;
 		}
 
-		// method that Updates the current location of the paddle
-		public void move() {
-			tempY = y + yVelocity;
+		// method that Updates the current location of the paddle for a tick of the given length
+		public void move(double seconds) {
+			tempY = posY + yVelocity * seconds;
 
 			// Ensure the paddle stays within the screen bounds, considering the top border
-			if (tempY >= 0 && tempY <= GamePanel.GAME_HEIGHT - PADEL_WIDTH) {
-				y = tempY;
-			} else if (tempY < 0) { // Adjusts if the paddle tries to move beyond the top border
-				y = 0;
+			if (tempY < 0) { // Adjusts if the paddle tries to move beyond the top border
+				tempY = 0;
+			} else if (tempY > GamePanel.GAME_HEIGHT - height) { // Adjusts at the bottom border
+				tempY = GamePanel.GAME_HEIGHT - height;
 			}
+			setPosition(posX, tempY);
+		}
+
+		// Places the paddle at an exact position
+		public void setPosition(double newX, double newY) {
+			posX = newX;
+			posY = newY;
+			x = (int) Math.round(newX);
+			y = (int) Math.round(newY);
+		}
+
+		// Remembers the current location as the location of the previous tick
+		public void savePosition() {
+			lastX = posX;
+			lastY = posY;
+		}
+
+		// Places the drawn paddle the given fraction of the way from the previous to the current tick
+		public void interpolate(double alpha) {
+			drawX = (int) Math.round(lastX + (posX - lastX) * alpha);
+			drawY = (int) Math.round(lastY + (posY - lastY) * alpha);
 		}
 
-		// Draws the current location of the paddle to the screen
-		public void draw(Graphics g) {
+		// Draws a paddle to the screen at the given location
+		public static void draw(Graphics g, int x, int y) {
 			g.setColor(Color.black);
 			g.fillRect(x, y, PADEL_LENGTH, PADEL_WIDTH);
 		}
@@ -0,0 +1,223 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class draws sparks where the ball hits a paddle or a wall and a burst where a point is won.
+ * Every particle lives in a pool of primitive arrays made once at the start, so emitting, moving
+ * and drawing particles never allocates. The live particles are kept at the front of the arrays
+ * and a dead one is replaced by the last live one. The number of live particles is capped by a
+ * budget that shrinks while drawing them takes too long and grows back when it is cheap again, so
+ * under load there are fewer sparks instead of late frames.
+ */
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class Particles {
+
+	// Kinds of particles, each with its own color
+	public static final int WALL = 0;
+	public static final int PADEL = 1;
+	public static final int POINT = 2;
+	// Number of fade steps of each color, and the number of color buckets particles are drawn in
+	private static final int FADES = 4;
+	public static final int BUCKETS = 3 * FADES;
+	// Size of a particle in pixels
+	private static final int SIZE = 4;
+	// Pull towards the bottom of the screen, and the share of speed kept after one second
+	private static final float GRAVITY = 600;
+	private static final float DRAG = 0.2f;
+	// Longest time drawing the particles may take in one frame before the budget shrinks, and the
+	// smallest the budget gets
+	private static final long MAX_DRAW_NANOS = 1_500_000L;
+	private static final int MIN_BUDGET = 64;
+
+	// Colors of every bucket, from the freshest to the most faded particle of each kind
+	private static final Color[] COLORS = new Color[BUCKETS];
+	static {
+		Color[] kinds = { new Color(90, 90, 90), new Color(255, 140, 0), new Color(220, 30, 30) };
+		for (int kind = 0; kind < 3; kind++) {
+			for (int fade = 0; fade < FADES; fade++) {
+				float keep = 1 - fade / (float) FADES; // Blend towards the white background
+				Color c = kinds[kind];
+				COLORS[kind * FADES + fade] = new Color(255 - (int) ((255 - c.getRed()) * keep),
+						255 - (int) ((255 - c.getGreen()) * keep), 255 - (int) ((255 - c.getBlue()) * keep));
+			}
+		}
+	}
+
+	// The pool: position, velocity, time left and total lifetime in seconds, and kind of each particle
+	private final float[] x;
+	private final float[] y;
+	private final float[] vx;
+	private final float[] vy;
+	private final float[] life;
+	private final float[] lifetime;
+	private final byte[] kind;
+	private int count;
+
+	// Most particles alive at once right now, between MIN_BUDGET and the pool size
+	private int budget;
+	// Time the EDT took to draw the particles of the last frame
+	private volatile long drawNanos;
+	// Particles that were not emitted because the budget was full
+	private long dropped;
+
+	private final SplittableRandom random;
+
+	// Constructor creates a pool of the given size
+	public Particles(int capacity, long seed) {
+		x = new float[capacity];
+		y = new float[capacity];
+		vx = new float[capacity];
+		vy = new float[capacity];
+		life = new float[capacity];
+		lifetime = new float[capacity];
+		kind = new byte[capacity];
+		budget = capacity;
+		random = new SplittableRandom(seed);
+	}
+
+	// Method to get the size of the pool
+	public int getCapacity() {
+		return x.length;
+	}
+
+	// Method to get the number of live particles
+	public int getCount() {
+		return count;
+	}
+
+	// Method to throw sparks from a point, in a cone around a direction (radians), at up to a speed
+	public void emit(int type, double atX, double atY, int particles, double direction, double spread,
+			double speed, double seconds) {
+		int room = budget - count;
+		if (particles > room) {
+			dropped += particles - Math.max(room, 0);
+			particles = room;
+		}
+		for (int p = 0; p < particles; p++) {
+			int i = count++;
+			double angle = direction + spread * (random.nextDouble() - 0.5);
+			double v = speed * (0.3 + 0.7 * random.nextDouble());
+			x[i] = (float) atX;
+			y[i] = (float) atY;
+			vx[i] = (float) (Math.cos(angle) * v);
+			vy[i] = (float) (Math.sin(angle) * v);
+			lifetime[i] = (float) (seconds * (0.5 + 0.5 * random.nextDouble()));
+			life[i] = lifetime[i];
+			kind[i] = (byte) type;
+		}
+	}
+
+	// Method to move every particle by one tick and remove the ones that died
+	public void update(double seconds) {
+		adjustBudget();
+		float dt = (float) seconds;
+		float keep = (float) Math.pow(DRAG, seconds);
+		int i = 0;
+		while (i < count) {
+			life[i] -= dt;
+			if (life[i] <= 0) {
+				remove(i); // The last particle takes its place and is updated next
+				continue;
+			}
+			vy[i] = (vy[i] + GRAVITY * dt) * keep;
+			vx[i] *= keep;
+			x[i] += vx[i] * dt;
+			y[i] += vy[i] * dt;
+			i++;
+		}
+	}
+
+	// Method to remove a particle by moving the last live one into its place
+	private void remove(int i) {
+		int last = --count;
+		x[i] = x[last];
+		y[i] = y[last];
+		vx[i] = vx[last];
+		vy[i] = vy[last];
+		life[i] = life[last];
+		lifetime[i] = lifetime[last];
+		kind[i] = kind[last];
+	}
+
+	// Method to shrink the budget quickly while drawing is too slow, and grow it back slowly
+	private void adjustBudget() {
+		long cost = drawNanos;
+		if (cost > MAX_DRAW_NANOS) {
+			budget = Math.max(MIN_BUDGET, budget * 3 / 4);
+		} else if (cost < MAX_DRAW_NANOS / 2) {
+			budget = Math.min(x.length, budget + Math.max(1, x.length / 256));
+		}
+	}
+
+	// Method for the EDT to tell how long the particles of the last frame took to draw
+	public void drawn(long nanos) {
+		drawNanos = nanos;
+	}
+
+	// Method to copy the particles into a snapshot, sorted into their color buckets, returns the
+	// number copied. bucketStart gets where each bucket starts, bounds gets the area they cover
+	// (x, y, width, height).
+	public int copyTo(int[] xs, int[] ys, int[] bucketStart, int[] bounds) {
+		Arrays.fill(bucketStart, 0);
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+		for (int i = 0; i < count; i++) {
+			bucketStart[bucket(i) + 1]++;
+		}
+		for (int b = 0; b < BUCKETS; b++) {
+			bucketStart[b + 1] += bucketStart[b];
+		}
+		for (int i = 0; i < count; i++) {
+			int k = bucketStart[bucket(i)]++; // Moves each start to the end of its bucket
+			int px = (int) x[i];
+			int py = (int) y[i];
+			xs[k] = px;
+			ys[k] = py;
+			minX = Math.min(minX, px);
+			minY = Math.min(minY, py);
+			maxX = Math.max(maxX, px);
+			maxY = Math.max(maxY, py);
+		}
+		for (int b = BUCKETS; b > 0; b--) {
+			bucketStart[b] = bucketStart[b - 1]; // Move the starts back
+		}
+		bucketStart[0] = 0;
+		if (count == 0) {
+			bounds[0] = bounds[1] = bounds[2] = bounds[3] = 0;
+		} else {
+			bounds[0] = minX;
+			bounds[1] = minY;
+			bounds[2] = maxX - minX + SIZE;
+			bounds[3] = maxY - minY + SIZE;
+		}
+		return count;
+	}
+
+	// Method to find the color bucket of a particle from its kind and how much of its life is left
+	private int bucket(int i) {
+		int fade = (int) ((1 - life[i] / lifetime[i]) * FADES);
+		return kind[i] * FADES + Math.min(fade, FADES - 1);
+	}
+
+	// Method to draw particles sorted into color buckets, changing the color once per bucket
+	public static void draw(Graphics g, int[] xs, int[] ys, int[] bucketStart) {
+		for (int b = 0; b < BUCKETS; b++) {
+			if (bucketStart[b] == bucketStart[b + 1]) {
+				continue;
+			}
+			g.setColor(COLORS[b]);
+			for (int k = bucketStart[b]; k < bucketStart[b + 1]; k++) {
+				g.fillRect(xs[k], ys[k], SIZE, SIZE);
+			}
+		}
+	}
+
+	// Method to describe the particle statistics in one line
+	public String report() {
+		return String.format("particles: %d live, budget %d of %d, %d dropped, last draw %.3f ms", count, budget,
+				x.length, dropped, drawNanos / 1e6);
+	}
+}
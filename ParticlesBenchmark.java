@@ -0,0 +1,62 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class measures the worst case of the particle effects: a point burst every frame on top of
+ * paddle sparks, far more than the default pool holds, so the budget is always full. Each frame
+ * updates the particles, copies them into a snapshot and draws them into an off-screen image. It
+ * prints the time per frame against the 16.6 ms frame budget, and the bytes allocated per frame
+ * once warmed up, which should be 0.
+ * Usage: java -Djava.awt.headless=true ParticlesBenchmark [pool size] [frames]
+ */
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+class ParticlesBenchmark {
+	public static void main(String[] args) {
+		int capacity = args.length > 0 ? Integer.parseInt(args[0]) : 2048;
+		int frames = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+		double seconds = 1.0 / Integer.getInteger("pong.tickRate", 60);
+
+		Particles particles = new Particles(capacity, 1);
+		GameSnapshot snapshot = new GameSnapshot();
+		snapshot.particleX = new int[capacity];
+		snapshot.particleY = new int[capacity];
+		int[] bounds = new int[4];
+		BufferedImage image = new BufferedImage(GamePanel.GAME_WIDTH, GamePanel.GAME_HEIGHT,
+				BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		long[] times = new long[frames];
+		int warmUp = frames / 5;
+		long allocatedBefore = 0;
+		for (int f = 0; f < frames + warmUp; f++) {
+			if (f == warmUp) {
+				allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+			}
+			long start = System.nanoTime();
+			particles.emit(Particles.PADEL, 40, 390, 30, 0, Math.PI * 0.6, 480, 0.5);
+			particles.emit(Particles.POINT, 640, 390, 150, 0, 2 * Math.PI, 650, 0.9);
+			particles.update(seconds);
+			snapshot.particleCount = particles.copyTo(snapshot.particleX, snapshot.particleY,
+					snapshot.particleBuckets, bounds);
+			long drawStart = System.nanoTime();
+			Particles.draw(g, snapshot.particleX, snapshot.particleY, snapshot.particleBuckets);
+			particles.drawn(System.nanoTime() - drawStart);
+			if (f >= warmUp) {
+				times[f - warmUp] = System.nanoTime() - start;
+			}
+		}
+		long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+		Arrays.sort(times);
+		System.out.printf("%d frames, pool of %d: p50 %.3f ms, p99 %.3f ms, max %.3f ms per frame"
+				+ " (%.1f%% of a 16.6 ms frame at p99)%n", frames, capacity, times[frames / 2] / 1e6,
+				times[frames * 99 / 100] / 1e6, times[frames - 1] / 1e6, times[frames * 99 / 100] / 1e6 / 16.6 * 100);
+		System.out.printf("allocated %.1f bytes per frame%n", (double) allocated / frames);
+		System.out.println(particles.report());
+	}
+}
@@ -8,27 +8,52 @@ import java.awt.*;
 
 public class PlayerBall extends Rectangle {
 
-	// variables to store the x and y velocity
-	public int yVelocity;
-	public int xVelocity;
+	// variables to store the x and y velocity in pixels per second
+	public double yVelocity;
+	public double xVelocity;
 	public final int SPEED = 20; // movement speed of ball
 	public static final int BALL_DIAMETER = 20; // size of ball
+	// exact position of the ball, x and y are this position rounded to whole pixels
+	public double posX, posY;
+	// position at the previous tick, and the position drawn between the previous and current tick
+	public double lastX, lastY;
+	public int drawX, drawY;
 
 	// constructor creates ball at given location with given dimensions
 	public PlayerBall(int x, int y) {
 		super(x, y, BALL_DIAMETER, BALL_DIAMETER);
+		setPosition(x, y);
+		savePosition();
+		interpolate(1);
+	}
+
+	// method that updates the current location of the ball for a tick of the given length
+	public void move(double seconds) {
+		setPosition(posX + xVelocity * seconds, posY + yVelocity * seconds);
+	}
+
+	// method that places the ball at an exact position
+	public void setPosition(double newX, double newY) {
+		posX = newX;
+		posY = newY;
+		x = (int) Math.round(newX);
+		y = (int) Math.round(newY);
+	}
 
+	// method that remembers the current location as the location of the previous tick
+	public void savePosition() {
+		lastX = posX;
+		lastY = posY;
 	}
 
-	// method that updates the current location of the ball
-	public void move() {
-		y = y + yVelocity;
-		x = x + xVelocity;
+	// method that places the drawn ball the given fraction of the way from the previous to the current tick
+	public void interpolate(double alpha) {
+		drawX = (int) Math.round(lastX + (posX - lastX) * alpha);
+		drawY = (int) Math.round(lastY + (posY - lastY) * alpha);
 	}
 
-	
-	// draws the current location of the ball to the screen
-	public void draw(Graphics g) {
+	// draws the ball to the screen at the given location
+	public static void draw(Graphics g, int x, int y) {
 		g.setColor(Color.black);
 		g.fillOval(x, y, BALL_DIAMETER, BALL_DIAMETER);
 	}
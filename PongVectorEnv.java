@@ -0,0 +1,201 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class is a vectorized environment for training agents to play Pong. It holds many
+ * independent headless matches and advances all of them with one step call. The agent plays the
+ * left paddle against a computer player on the right, and serves are made automatically.
+ *
+ * Actions, observations, rewards and done flags live in direct byte buffers in native byte order,
+ * so a trainer (also one outside Java) can read and write them without copying:
+ *   actions       one byte per match: 0 stay, 1 up, 2 down
+ *   observations  OBSERVATION_SIZE floats per match, positions scaled to 0..1 and speeds to about -1..1
+ *   rewards       one float per match: +1 for a point won, -1 for a point lost in the last step
+ *   dones         one byte per match: 1 if the match ended in the last step
+ * A match that ends is started again at once, so its observation is already the new match's.
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class PongVectorEnv {
+
+	// Actions
+	public static final int STAY = 0;
+	public static final int UP = 1;
+	public static final int DOWN = 2;
+
+	// Observation values: ball x, y, x velocity, y velocity, own paddle y, opponent paddle y,
+	// own score and opponent score
+	public static final int OBSERVATION_SIZE = 8;
+
+	// Matches stepped by one task when stepping in parallel
+	private static final int MATCHES_PER_TASK = 256;
+	// Scale of the velocities in the observations, in pixels per second
+	private static final float VELOCITY_SCALE = 1000;
+
+	private final int count;
+	private final int ticksPerStep;
+	private final long maxEpisodeTicks;
+	private final boolean parallel;
+	private final Match[] matches;
+	private final CpuPlayer[] opponents;
+	private final long[] episodeStart;
+
+	// Buffers shared with the trainer
+	private final ByteBuffer actions;
+	private final ByteBuffer observationBytes;
+	private final FloatBuffer observations;
+	private final ByteBuffer rewardBytes;
+	private final FloatBuffer rewards;
+	private final ByteBuffer dones;
+
+	// Constructor creates a number of matches with rules, an opponent level, the ticks simulated per
+	// step, the longest an episode may last in seconds and whether to step the matches on all cores
+	public PongVectorEnv(int count, long seed, MatchRules rules, CpuPlayer.Level opponent, int tickRate,
+			int ticksPerStep, double maxEpisodeSeconds, boolean parallel) {
+		if (count < 1 || ticksPerStep < 1) {
+			throw new IllegalArgumentException("count and ticks per step must be positive");
+		}
+		this.count = count;
+		this.ticksPerStep = ticksPerStep;
+		this.maxEpisodeTicks = (long) (maxEpisodeSeconds * tickRate);
+		this.parallel = parallel;
+
+		SplittableRandom random = new SplittableRandom(seed);
+		matches = new Match[count];
+		opponents = new CpuPlayer[count];
+		episodeStart = new long[count];
+		for (int i = 0; i < count; i++) {
+			matches[i] = new Match(random.nextLong(), tickRate, rules);
+			opponents[i] = new CpuPlayer(2, opponent, random.nextLong());
+		}
+
+		actions = ByteBuffer.allocateDirect(count).order(ByteOrder.nativeOrder());
+		observationBytes = ByteBuffer.allocateDirect(count * OBSERVATION_SIZE * 4).order(ByteOrder.nativeOrder());
+		observations = observationBytes.asFloatBuffer();
+		rewardBytes = ByteBuffer.allocateDirect(count * 4).order(ByteOrder.nativeOrder());
+		rewards = rewardBytes.asFloatBuffer();
+		dones = ByteBuffer.allocateDirect(count).order(ByteOrder.nativeOrder());
+		for (int i = 0; i < count; i++) {
+			observe(i);
+		}
+	}
+
+	// Method to get the number of matches
+	public int getCount() {
+		return count;
+	}
+
+	// Method to get the buffer the actions of the next step are read from
+	public ByteBuffer getActions() {
+		return actions;
+	}
+
+	// Method to get the buffer the observations are written to
+	public ByteBuffer getObservations() {
+		return observationBytes;
+	}
+
+	// Method to get the buffer the rewards of the last step are written to
+	public ByteBuffer getRewards() {
+		return rewardBytes;
+	}
+
+	// Method to get the buffer the done flags of the last step are written to
+	public ByteBuffer getDones() {
+		return dones;
+	}
+
+	// Method to start every match again
+	public void reset() {
+		for (int i = 0; i < count; i++) {
+			matches[i].restart();
+			episodeStart[i] = matches[i].tick;
+			rewards.put(i, 0);
+			dones.put(i, (byte) 0);
+			observe(i);
+		}
+	}
+
+	// Method to copy actions into the action buffer and step every match
+	public void step(int[] actions) {
+		for (int i = 0; i < count; i++) {
+			this.actions.put(i, (byte) actions[i]);
+		}
+		step();
+	}
+
+	// Method to step every match with the actions in the action buffer
+	public void step() {
+		if (parallel && count > MATCHES_PER_TASK) {
+			ForkJoinPool.commonPool().invoke(new StepTask(0, count));
+		} else {
+			step(0, count);
+		}
+	}
+
+	// Method to step a range of matches
+	private void step(int from, int to) {
+		for (int i = from; i < to; i++) {
+			Match match = matches[i];
+			int action = actions.get(i);
+			int inputs = action == UP ? Match.P1_UP : action == DOWN ? Match.P1_DOWN : 0;
+			int before = match.score.player1Score - match.score.player2Score;
+			boolean done = false;
+
+			for (int t = 0; t < ticksPerStep && !done; t++) {
+				int opponent = opponents[i].inputs(match) & ~Match.SERVE; // Serves are made below
+				match.tick(inputs | opponent | (match.gameStarted ? 0 : Match.SERVE));
+				done = match.gameOver || match.tick - episodeStart[i] >= maxEpisodeTicks;
+			}
+
+			rewards.put(i, match.score.player1Score - match.score.player2Score - before);
+			dones.put(i, (byte) (done ? 1 : 0));
+			if (done) {
+				match.restart(); // Start the next episode at once
+				episodeStart[i] = match.tick;
+			}
+			observe(i);
+		}
+	}
+
+	// Method to write the observation of a match
+	private void observe(int i) {
+		Match match = matches[i];
+		int base = i * OBSERVATION_SIZE;
+		observations.put(base, (float) (match.ball.posX / GamePanel.GAME_WIDTH));
+		observations.put(base + 1, (float) (match.ball.posY / GamePanel.GAME_HEIGHT));
+		observations.put(base + 2, (float) match.ball.xVelocity / VELOCITY_SCALE);
+		observations.put(base + 3, (float) match.ball.yVelocity / VELOCITY_SCALE);
+		observations.put(base + 4, (float) (match.padel1.posY / GamePanel.GAME_HEIGHT));
+		observations.put(base + 5, (float) (match.padel2.posY / GamePanel.GAME_HEIGHT));
+		observations.put(base + 6, (float) match.score.player1Score / match.getRules().winningScore);
+		observations.put(base + 7, (float) match.score.player2Score / match.getRules().winningScore);
+	}
+
+	// Task stepping a range of matches, split in halves until small enough
+	@SuppressWarnings("serial")
+	private class StepTask extends RecursiveAction {
+		private final int from;
+		private final int to;
+
+		StepTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= MATCHES_PER_TASK) {
+				step(from, to);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new StepTask(from, middle), new StepTask(middle, to));
+			}
+		}
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class measures how many environment steps per second the vectorized environment reaches,
+ * with random actions, one tick per step and every match stepped on all cores, and prints the
+ * average reward and number of finished episodes as a sanity check.
+ * Usage: java -Djava.awt.headless=true PongVectorEnvBenchmark [matches] [steps]
+ */
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+class PongVectorEnvBenchmark {
+	public static void main(String[] args) {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+		int steps = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+		int tickRate = Integer.getInteger("pong.tickRate", 60);
+		PongVectorEnv env = new PongVectorEnv(count, 1, MatchRules.DEFAULT, CpuPlayer.Level.NORMAL, tickRate, 1, 600,
+				true);
+		ByteBuffer actions = env.getActions();
+		ByteBuffer rewards = env.getRewards();
+		ByteBuffer dones = env.getDones();
+		SplittableRandom random = new SplittableRandom(2);
+
+		double rewardSum = 0;
+		long episodes = 0;
+		long start = 0;
+		int warmUp = steps / 10;
+		for (int s = 0; s < steps + warmUp; s++) {
+			if (s == warmUp) {
+				start = System.nanoTime(); // Time after the JIT has warmed up
+			}
+			for (int i = 0; i < count; i++) {
+				actions.put(i, (byte) random.nextInt(3));
+			}
+			env.step();
+			for (int i = 0; i < count; i++) {
+				rewardSum += rewards.getFloat(i * 4);
+				episodes += dones.get(i);
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%d matches x %d steps in %.2f s: %.0f steps/s on %d cores%n", count, steps, seconds,
+				(double) count * steps / seconds, Runtime.getRuntime().availableProcessors());
+		System.out.printf("random play: reward %.4f per step, %d episodes finished%n",
+				rewardSum / ((double) count * (steps + warmUp)), episodes);
+	}
+}
@@ -0,0 +1,289 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class times each phase of the game loop and of painting. Painting is timed once per whole
+ * frame (paint) and once per damaged region (region), since one frame may paint several regions;
+ * the frame rate counts whole frames. Every phase has a latency histogram that is summed up once
+ * per second (p50, p99 and max), each timing is also sent to Java Flight Recorder as a pong.Phase
+ * event, and the summary is kept as a few lines of pre-rendered text for the on-screen
+ * performance overlay.
+ */
+
+import java.awt.Font;
+import java.awt.Graphics;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.Timespan;
+
+public class Profiler {
+
+	// Phases that are timed
+	public static final int INPUT = 0;
+	public static final int MOVE = 1;
+	public static final int COLLISION = 2;
+	public static final int TICK = 3;
+	public static final int DRAW = 4;
+	public static final int PAINT = 5;
+	public static final int FX_TICK = 6;
+	public static final int FX_DRAW = 7;
+	public static final int REGION = 8;
+	private static final String[] PHASE_NAMES = { "input", "move", "collision", "tick", "draw", "paint", "fx tick",
+			"fx draw", "region" };
+
+	// Length of the window the statistics are collected over
+	private static final long WINDOW_NANOS = 1_000_000_000L;
+	// Font of the overlay
+	private static final Font HUD_FONT = new Font("Monospaced", Font.PLAIN, 14);
+
+	// Event sent to Flight Recorder for every timed phase
+	@Name("pong.Phase")
+	@Label("Game Loop Phase")
+	@Category("Pong")
+	@Description("Time spent in one phase of the game loop or of painting")
+	public static class PhaseEvent extends jdk.jfr.Event {
+		@Label("Phase")
+		String phase;
+
+		@Label("Duration")
+		@Timespan(Timespan.NANOSECONDS)
+		long nanos;
+	}
+
+	// Event sent to Flight Recorder once per second with the loop rates
+	@Name("pong.LoopStatistics")
+	@Label("Game Loop Statistics")
+	@Category("Pong")
+	@Period("1 s")
+	public static class LoopEvent extends jdk.jfr.Event {
+		@Label("Ticks Per Second")
+		double ticksPerSecond;
+
+		@Label("Frames Per Second")
+		double framesPerSecond;
+
+		@Label("Tick Accumulator")
+		@Description("Part of a tick left in the accumulator when the last frame was drawn")
+		double accumulator;
+
+		@Label("Dropped Ticks")
+		long droppedTicks;
+
+		@Label("Game Thread Allocation Rate")
+		double allocatedBytesPerSecond;
+	}
+
+	private static final EventType PHASE_EVENT = EventType.getEventType(PhaseEvent.class);
+
+	// One latency histogram per phase, each written by a single thread
+	private final Histogram[] phases = new Histogram[PHASE_NAMES.length];
+
+	// Loop rates, written by the game thread
+	private volatile double ticksPerSecond;
+	private volatile double framesPerSecond;
+	private volatile double accumulator;
+	private volatile long droppedTicks;
+	private volatile double jitterMillis;
+	private volatile double allocatedBytesPerSecond;
+
+	// Allocation measurement of the game thread
+	private final com.sun.management.ThreadMXBean threads;
+	private long lastAllocated = -1;
+	private long lastAllocationCheck;
+
+	// Pre-rendered overlay lines, replaced once per second, and how often they were replaced
+	private volatile TextCache.Text[] hudLines = new TextCache.Text[0];
+	private volatile int hudVersion;
+	private long lastHudUpdate = System.nanoTime();
+
+	private final Runnable jfrHook = this::emitLoopEvent;
+
+	// Constructor creates empty histograms and registers the periodic Flight Recorder event
+	public Profiler() {
+		for (int i = 0; i < phases.length; i++) {
+			phases[i] = new Histogram();
+		}
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		threads = bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+		FlightRecorder.addPeriodicEvent(LoopEvent.class, jfrHook);
+	}
+
+	// Method to stop sending the periodic Flight Recorder event
+	public void close() {
+		FlightRecorder.removePeriodicEvent(jfrHook);
+	}
+
+	// Method to record how long a phase took, given the time it started
+	public void end(int phase, long start) {
+		record(phase, System.nanoTime() - start);
+	}
+
+	// Method to record how long a phase took
+	public void record(int phase, long nanos) {
+		phases[phase].record(nanos, System.nanoTime());
+		if (PHASE_EVENT.isEnabled()) {
+			PhaseEvent event = new PhaseEvent();
+			event.phase = PHASE_NAMES[phase];
+			event.nanos = nanos;
+			event.commit();
+		}
+	}
+
+	// Method for the game thread to report the loop rates, updates the overlay once per second
+	public void updateLoop(TickClock tickClock, FrameScheduler scheduler) {
+		accumulator = tickClock.alpha();
+		long now = System.nanoTime();
+		if (now - lastHudUpdate < WINDOW_NANOS) {
+			return;
+		}
+		ticksPerSecond = tickClock.getTicksPerSecond();
+		framesPerSecond = phases[PAINT].count; // Whole frames painted in the last window, not regions
+		droppedTicks = tickClock.getDroppedTicks();
+		jitterMillis = scheduler.getMaxJitterMillis();
+		measureAllocation(now);
+		lastHudUpdate = now;
+		hudLines = renderHud();
+		hudVersion++;
+	}
+
+	// Method to measure how many bytes the calling thread allocated per second since the last call
+	private void measureAllocation(long now) {
+		if (threads == null || !threads.isThreadAllocatedMemorySupported()) {
+			return;
+		}
+		long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+		if (lastAllocated >= 0) {
+			allocatedBytesPerSecond = (allocated - lastAllocated) * 1e9 / (now - lastAllocationCheck);
+		}
+		lastAllocated = allocated;
+		lastAllocationCheck = now;
+	}
+
+	// Method to send the loop statistics to Flight Recorder
+	private void emitLoopEvent() {
+		LoopEvent event = new LoopEvent();
+		event.ticksPerSecond = ticksPerSecond;
+		event.framesPerSecond = framesPerSecond;
+		event.accumulator = accumulator;
+		event.droppedTicks = droppedTicks;
+		event.allocatedBytesPerSecond = allocatedBytesPerSecond;
+		event.commit();
+	}
+
+	// Method to render the overlay text from the latest statistics
+	private TextCache.Text[] renderHud() {
+		TextCache.Text[] lines = new TextCache.Text[PHASE_NAMES.length + 2];
+		lines[0] = new TextCache.Text(String.format("%.1f ticks/s  %.1f fps  jitter max %.2f ms  dropped %d",
+				ticksPerSecond, framesPerSecond, jitterMillis, droppedTicks), HUD_FONT);
+		lines[1] = new TextCache.Text(String.format("accumulator %.2f tick  game thread alloc %.1f KB/s",
+				accumulator, allocatedBytesPerSecond / 1024), HUD_FONT);
+		for (int i = 0; i < PHASE_NAMES.length; i++) {
+			Histogram h = phases[i];
+			lines[i + 2] = new TextCache.Text(String.format("%-9s p50 %7.3f  p99 %7.3f  max %7.3f ms  (%d/s)",
+					PHASE_NAMES[i], h.p50 / 1e6, h.p99 / 1e6, h.max / 1e6, h.count), HUD_FONT);
+		}
+		return lines;
+	}
+
+	// Method to get a number that changes every time the overlay text is replaced
+	public int getHudVersion() {
+		return hudVersion;
+	}
+
+	// Method to get the height of the overlay
+	public int getHudHeight() {
+		int height = 0;
+		for (TextCache.Text line : hudLines) {
+			height += line.height;
+		}
+		return height;
+	}
+
+	// Method to draw the overlay with its top left corner at the given position
+	public void drawHud(Graphics g, int x, int y) {
+		for (TextCache.Text line : hudLines) {
+			line.drawTopLeft(g, x, y);
+			y += line.height;
+		}
+	}
+
+	// Method to describe the statistics in one line for the console
+	public String report() {
+		StringBuilder report = new StringBuilder();
+		for (int i = 0; i < PHASE_NAMES.length; i++) {
+			Histogram h = phases[i];
+			report.append(String.format("%s%s p50 %.3f p99 %.3f max %.3f ms", i == 0 ? "" : ", ", PHASE_NAMES[i],
+					h.p50 / 1e6, h.p99 / 1e6, h.max / 1e6));
+		}
+		return report.append(String.format(", game thread alloc %.1f KB/s", allocatedBytesPerSecond / 1024))
+				.toString();
+	}
+
+	// Latency histogram with 8 buckets per power of two (within 12.5%), summed up once per window
+	private static class Histogram {
+		private static final int BUCKETS = 8 * 62;
+
+		private final long[] counts = new long[BUCKETS];
+		private long total;
+		private long windowMax;
+		private long windowStart = System.nanoTime();
+
+		// Summary of the last finished window
+		volatile long p50, p99, max, count;
+
+		// Method to add one measurement, finishing the window if it is over
+		void record(long nanos, long now) {
+			counts[bucket(Math.max(0, nanos))]++;
+			total++;
+			windowMax = Math.max(windowMax, nanos);
+			if (now - windowStart >= WINDOW_NANOS) {
+				p50 = percentile(0.50);
+				p99 = percentile(0.99);
+				max = windowMax;
+				count = total;
+				Arrays.fill(counts, 0);
+				total = 0;
+				windowMax = 0;
+				windowStart = now;
+			}
+		}
+
+		// Method to get the lower bound of the bucket holding the given percentile
+		private long percentile(double p) {
+			long rank = (long) Math.ceil(p * total);
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += counts[i];
+				if (seen >= rank && seen > 0) {
+					return lowerBound(i);
+				}
+			}
+			return windowMax;
+		}
+
+		// Method to get the bucket of a value: the top bit and the three bits below it
+		private static int bucket(long value) {
+			if (value < 8) {
+				return (int) value;
+			}
+			int top = 63 - Long.numberOfLeadingZeros(value);
+			return (top - 2) * 8 + (int) ((value >>> (top - 3)) & 7);
+		}
+
+		// Method to get the smallest value in a bucket
+		private static long lowerBound(int bucket) {
+			if (bucket < 8) {
+				return bucket;
+			}
+			int top = bucket / 8 + 2;
+			return (8L | (bucket % 8)) << (top - 3);
+		}
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class records a match into a memory-mapped replay file and plays it back. The file holds
+ * one byte of input bits per tick and, every few ticks, a keyframe with the whole match state.
+ * Because a match is deterministic, any tick can be reached by loading the keyframe before it and
+ * simulating at most one keyframe interval of ticks.
+ *
+ * Layout: 64 byte header, then one input byte per tick, then one keyframe slot per interval.
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class ReplayFile implements AutoCloseable {
+
+	// Header fields
+	private static final long MAGIC = 0x504F4E4752504C31L; // "PONGRPL1"
+	private static final int HEADER_BYTES = 64;
+	private static final int TICK_COUNT_OFFSET = 40;
+
+	// Default number of ticks between keyframes and capacity of a new file
+	public static final int KEYFRAME_INTERVAL = Integer.getInteger("pong.replay.keyframeInterval", 300);
+	public static final long MAX_TICKS = Long.getLong("pong.replay.maxTicks", 4_000_000L);
+
+	// Mapped file contents
+	private final MappedByteBuffer buffer;
+	private final boolean writable;
+
+	// Header values
+	private final int tickRate;
+	private final long seed;
+	private final int keyframeInterval;
+	private final long maxTicks;
+	private long tickCount;
+
+	private ReplayFile(MappedByteBuffer buffer, boolean writable) {
+		this.buffer = buffer;
+		this.writable = writable;
+		if (buffer.capacity() < HEADER_BYTES || buffer.getLong(0) != MAGIC) {
+			throw new IllegalArgumentException("not a replay file");
+		}
+		tickRate = buffer.getInt(12);
+		seed = buffer.getLong(16);
+		keyframeInterval = buffer.getInt(24);
+		maxTicks = buffer.getLong(32);
+		tickCount = buffer.getLong(TICK_COUNT_OFFSET);
+
+		// A cut off or damaged file must not make playback divide by zero or read past the end
+		if (tickRate <= 0 || keyframeInterval <= 0) {
+			throw new IllegalArgumentException("bad tick rate or keyframe interval in replay header");
+		}
+		if (maxTicks < 0 || maxTicks > buffer.capacity() || tickCount < 0 || tickCount > maxTicks) {
+			throw new IllegalArgumentException("bad tick count in replay header");
+		}
+		long keyframes = maxTicks / keyframeInterval + 1;
+		if (HEADER_BYTES + maxTicks + keyframes * Match.STATE_BYTES > buffer.capacity()) {
+			throw new IllegalArgumentException("replay file is shorter than its header says");
+		}
+	}
+
+	// Method to create a new replay file for a match with the given seed and tick rate
+	public static ReplayFile create(Path path, long seed, int tickRate) throws IOException {
+		long keyframes = MAX_TICKS / KEYFRAME_INTERVAL + 1;
+		long size = HEADER_BYTES + MAX_TICKS + keyframes * Match.STATE_BYTES;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			buffer.putLong(0, MAGIC);
+			buffer.putInt(8, 1); // Version
+			buffer.putInt(12, tickRate);
+			buffer.putLong(16, seed);
+			buffer.putInt(24, KEYFRAME_INTERVAL);
+			buffer.putLong(32, MAX_TICKS);
+			buffer.putLong(TICK_COUNT_OFFSET, 0);
+			return new ReplayFile(buffer, true);
+		}
+	}
+
+	// Method to open an existing replay file for playback
+	public static ReplayFile open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return new ReplayFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), false);
+		}
+	}
+
+	// Method to create a match that plays out like the recorded one
+	public Match newMatch() {
+		return new Match(seed, tickRate);
+	}
+
+	// Method to record the inputs of the tick the match is about to play, false once the file is full
+	public boolean record(Match match, int inputs) {
+		long tick = match.tick;
+		if (!writable || tick >= maxTicks) {
+			return false;
+		}
+		if (tick % keyframeInterval == 0) {
+			buffer.position(keyframeOffset(tick / keyframeInterval));
+			match.saveState(buffer); // State before this tick's inputs are applied
+		}
+		buffer.put((int) (HEADER_BYTES + tick), (byte) inputs);
+		tickCount = tick + 1;
+		buffer.putLong(TICK_COUNT_OFFSET, tickCount);
+		return true;
+	}
+
+	// Method to get the recorded input bits of a tick, 0 after the end of the recording
+	public int inputAt(long tick) {
+		return tick < tickCount ? buffer.get((int) (HEADER_BYTES + tick)) : 0;
+	}
+
+	// Method to bring a match to the state it had before the given tick
+	public void seek(Match match, long tick) {
+		tick = Math.max(0, Math.min(tick, tickCount));
+		long keyframe = tick / keyframeInterval;
+		if (match.tick > tick || match.tick < keyframe * keyframeInterval) {
+			loadKeyframe(match, keyframe); // Jump close to the tick, otherwise keep simulating from here
+		}
+		while (match.tick < tick) {
+			match.tick(inputAt(match.tick));
+		}
+	}
+
+	// Method to load a keyframe into a match
+	public void loadKeyframe(Match match, long keyframe) {
+		ByteBuffer slot = buffer.duplicate();
+		slot.position(keyframeOffset(keyframe));
+		match.loadState(slot);
+	}
+
+	// Method to check if the state of a match equals the keyframe recorded for its tick
+	public boolean matchesKeyframe(Match match, ByteBuffer scratch) {
+		scratch.clear();
+		match.saveState(scratch);
+		ByteBuffer slot = buffer.duplicate();
+		slot.position(keyframeOffset(match.tick / keyframeInterval));
+		slot.limit(slot.position() + Match.STATE_BYTES);
+		scratch.flip();
+		return scratch.equals(slot);
+	}
+
+	// Method to get where a keyframe is stored in the file
+	private int keyframeOffset(long keyframe) {
+		return (int) (HEADER_BYTES + maxTicks + keyframe * Match.STATE_BYTES);
+	}
+
+	// Method to get the number of recorded ticks
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	// Method to get the number of ticks between keyframes
+	public int getKeyframeInterval() {
+		return keyframeInterval;
+	}
+
+	// Method to get the tick rate of the recorded match
+	public int getTickRate() {
+		return tickRate;
+	}
+
+	// Method to get the random seed of the recorded match
+	public long getSeed() {
+		return seed;
+	}
+
+	@Override
+	// Method to write the recording to disk
+	public void close() {
+		if (writable) {
+			buffer.force();
+		}
+	}
+}
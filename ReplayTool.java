@@ -0,0 +1,54 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class checks and inspects a replay file from the command line. It plays the whole recording
+ * at full speed, checks that every keyframe matches the simulated state, reports how many ticks per
+ * second playback reached and, if a tick is given, seeks to it and prints the match state there.
+ * Usage: java ReplayTool <replay file> [tick]
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+
+class ReplayTool {
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.out.println("Usage: java ReplayTool <replay file> [tick]");
+			return;
+		}
+
+		try (ReplayFile replay = ReplayFile.open(Paths.get(args[0]))) {
+			System.out.printf("%d ticks at %d Hz, seed %d, keyframe every %d ticks%n", replay.getTickCount(),
+					replay.getTickRate(), replay.getSeed(), replay.getKeyframeInterval());
+
+			// Play the whole match from the start and compare it with every keyframe
+			Match match = replay.newMatch();
+			ByteBuffer scratch = ByteBuffer.allocate(Match.STATE_BYTES);
+			int mismatches = 0;
+			long start = System.nanoTime();
+			while (match.tick < replay.getTickCount()) {
+				if (match.tick % replay.getKeyframeInterval() == 0 && !replay.matchesKeyframe(match, scratch)) {
+					mismatches++;
+					System.out.println("keyframe mismatch at tick " + match.tick);
+				}
+				match.tick(replay.inputAt(match.tick));
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.printf("played %d ticks in %.3f s (%.0f ticks/s), %d keyframe mismatches%n", match.tick,
+					seconds, match.tick / Math.max(seconds, 1e-9), mismatches);
+			System.out.printf("final score %d - %d%n", match.score.player1Score, match.score.player2Score);
+
+			if (args.length > 1) {
+				long tick = Long.parseLong(args[1]);
+				Match seeked = replay.newMatch();
+				long seekStart = System.nanoTime();
+				replay.seek(seeked, tick);
+				System.out.printf("seek to tick %d took %.3f ms%n", seeked.tick, (System.nanoTime() - seekStart) / 1e6);
+				System.out.printf("score %d - %d, ball (%.2f, %.2f) velocity (%.2f, %.2f), paddles %.2f / %.2f%s%n",
+						seeked.score.player1Score, seeked.score.player2Score, seeked.ball.posX, seeked.ball.posY,
+						seeked.ball.xVelocity, seeked.ball.yVelocity, seeked.padel1.posY, seeked.padel2.posY,
+						seeked.gameOver ? ", game over" : seeked.gameStarted ? "" : ", waiting for serve");
+			}
+		}
+	}
+}
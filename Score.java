@@ -3,27 +3,28 @@
  * Date: 2024/05/21
  * Scpre class defines behaviors for keeping track of the Score
  */
-import java.awt.Color; 
-import java.awt.Font; 
 import java.awt.Graphics; 
 
 public class Score {
     public int player1Score; // Variable to store Player 1's score
     public int player2Score; // Variable to store Player 2's score
 
+    // Position of each player's score on the screen (left edge and baseline)
+    public static final int PLAYER1_X = GamePanel.GAME_WIDTH / 4;
+    public static final int PLAYER2_X = GamePanel.GAME_WIDTH * 3 / 4;
+    public static final int BASELINE_Y = 50;
+
     // Constructor to initialize the scores to 0
     public Score() {
         player1Score = 0; // Initialize Player 1's score
         player2Score = 0; // Initialize Player 2's score
     }
 
-    // Method to draw the scores on the screen
-    public void draw(Graphics g) {
-        g.setColor(Color.BLACK); // Set the color for drawing the text to black
-        g.setFont(new Font("Arial", Font.BOLD, 36)); // Set the font to Arial, bold, size 36
+    // Method to draw the given scores on the screen
+    public static void draw(Graphics g, int player1Score, int player2Score) {
         // Draw Player 1's score at 1/4th of the game width, 50 pixels from the top
-        g.drawString(String.valueOf(player1Score), GamePanel.GAME_WIDTH / 4, 50);
+        TextCache.drawNumber(g, player1Score, PLAYER1_X, BASELINE_Y);
         // Draw Player 2's score at 3/4th of the game width, 50 pixels from the top
-        g.drawString(String.valueOf(player2Score), GamePanel.GAME_WIDTH * 3 / 4, 50);
+        TextCache.drawNumber(g, player2Score, PLAYER2_X, BASELINE_Y);
     }
 }
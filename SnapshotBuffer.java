@@ -0,0 +1,44 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class hands game snapshots from the game thread to the EDT without locks (triple
+ * buffering). The game thread always fills in a snapshot nobody else is reading, the EDT always
+ * reads the newest snapshot that was completely filled in, and neither ever waits for the other.
+ */
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SnapshotBuffer {
+
+	// Flag added to the shared index when it holds a snapshot the reader has not taken yet
+	private static final int FRESH = 4;
+	private static final int INDEX = 3;
+
+	// The three snapshots that are passed around
+	private final GameSnapshot[] snapshots = { new GameSnapshot(), new GameSnapshot(), new GameSnapshot() };
+
+	// Snapshot being filled in, only used by the writer
+	private int back = 0;
+	// Snapshot being drawn, only used by the reader
+	private int front = 1;
+	// Snapshot waiting between the two, swapped by both
+	private final AtomicInteger middle = new AtomicInteger(2);
+
+	// Method to get the snapshot the writer fills in next
+	public GameSnapshot back() {
+		return snapshots[back];
+	}
+
+	// Method for the writer to publish the filled in snapshot and get a free one back
+	public void publish() {
+		back = middle.getAndSet(back | FRESH) & INDEX;
+	}
+
+	// Method for the reader to get the newest published snapshot
+	public GameSnapshot latest() {
+		if ((middle.get() & FRESH) != 0) {
+			front = middle.getAndSet(front) & INDEX; // Take the new snapshot, give back the old one
+		}
+		return snapshots[front];
+	}
+}
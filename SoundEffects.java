@@ -0,0 +1,156 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class is the shared sound effect engine for the game. It decodes every short sound effect
+ * once, keeps a small pool of reusable clips (voices) for each effect and plays them from its own
+ * thread, so the game loop and the buttons only drop a request into a queue and never wait on audio.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+public class SoundEffects {
+
+	// Sound effect files used by the game
+	public static final String CLICK = "Music/Click.wav";
+	public static final String LOST = "Music/Lost.wav";
+	public static final String PING = "Music/Ping.wav";
+	public static final String SERVE = "Music/Serve.wav";
+
+	// Effects decoded as soon as the audio thread starts
+	private static final String[] PRELOADED = { CLICK, LOST, PING, SERVE };
+
+	// Number of clips that can play the same effect at the same time
+	public static final int VOICES_PER_EFFECT = 4;
+	// Maximum number of play requests waiting for the audio thread
+	private static final int QUEUE_CAPACITY = 32;
+
+	// Play requests from the game thread and the EDT, read only by the audio thread
+	private static final BlockingQueue<String> requests = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	// Voice pools for every decoded effect, only touched by the audio thread
+	private static final Map<String, Voice[]> voices = new HashMap<>();
+	// Flag so the audio thread is only started once, and completed once every effect is decoded
+	private static final AtomicBoolean started = new AtomicBoolean(false);
+	private static final CompletableFuture<Void> loaded = new CompletableFuture<>();
+
+	// One reusable clip and the time it was last started, used for voice stealing
+	private static class Voice {
+		final Clip clip;
+		long startedAt;
+
+		Voice(Clip clip) {
+			this.clip = clip;
+		}
+	}
+
+	// Method to start the audio thread, which decodes all effects before serving requests,
+	// returns a future completed once they are decoded
+	public static CompletableFuture<Void> start() {
+		if (started.compareAndSet(false, true)) {
+			Thread audioThread = new Thread(SoundEffects::runAudioThread, "Sound Effects");
+			audioThread.setDaemon(true); // Do not keep the program alive for sound
+			audioThread.start();
+		}
+		return loaded;
+	}
+
+	// Method to request a sound effect, never blocks the caller
+	public static void play(String soundFile) {
+		if (!started.get()) {
+			start(); // Start lazily if nobody started the engine yet
+		}
+		requests.offer(soundFile); // Drop the request if the queue is full instead of waiting
+	}
+
+	// Method run by the audio thread
+	private static void runAudioThread() {
+		// Decode every known effect up front, all at the same time
+		List<CompletableFuture<Voice[]>> decoding = new ArrayList<>(PRELOADED.length);
+		for (String soundFile : PRELOADED) {
+			decoding.add(CompletableFuture.supplyAsync(() -> load(soundFile)));
+		}
+		for (int i = 0; i < PRELOADED.length; i++) {
+			voices.put(PRELOADED[i], decoding.get(i).join());
+		}
+		loaded.complete(null);
+
+		while (true) {
+			try {
+				String soundFile = requests.take(); // Wait for the next play request
+				Voice voice = pickVoice(voicesFor(soundFile));
+				if (voice != null) {
+					voice.clip.stop(); // Stop the voice in case it is being stolen
+					voice.clip.setFramePosition(0); // Rewind to the start of the effect
+					voice.clip.start(); // Play the effect
+					voice.startedAt = System.nanoTime();
+				}
+			} catch (InterruptedException e) {
+				return; // Stop the audio thread
+			}
+		}
+	}
+
+	// Method to pick an idle voice, or steal the one that started playing first
+	private static Voice pickVoice(Voice[] pool) {
+		Voice oldest = null;
+		for (Voice voice : pool) {
+			if (!voice.clip.isActive()) {
+				return voice; // Idle voice found
+			}
+			if (oldest == null || voice.startedAt < oldest.startedAt) {
+				oldest = voice;
+			}
+		}
+		return oldest;
+	}
+
+	// Method to get the voice pool of an effect, decoding it the first time it is needed
+	private static Voice[] voicesFor(String soundFile) {
+		Voice[] pool = voices.get(soundFile);
+		if (pool == null) {
+			pool = load(soundFile);
+			voices.put(soundFile, pool); // Remember failures too so a missing file is only read once
+		}
+		return pool;
+	}
+
+	// Method to decode a sound file once and open all its voices from the same sample data
+	private static Voice[] load(String soundFile) {
+		List<Clip> opened = new ArrayList<>(VOICES_PER_EFFECT);
+		try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(new File(soundFile))) {
+			AudioFormat format = audioStream.getFormat();
+			byte[] data = audioStream.readAllBytes(); // Decode the whole effect into memory
+
+			Voice[] pool = new Voice[VOICES_PER_EFFECT];
+			for (int i = 0; i < pool.length; i++) {
+				Clip clip = AudioSystem.getClip();
+				opened.add(clip);
+				clip.open(format, data, 0, data.length); // Every voice shares the decoded samples
+				pool[i] = new Voice(clip);
+			}
+			return pool;
+		} catch (UnsupportedAudioFileException | IOException | LineUnavailableException
+				| IllegalArgumentException e) {
+			e.printStackTrace();
+			for (Clip clip : opened) {
+				clip.close(); // Give back the clips of the voices opened before the failure
+			}
+			return new Voice[0]; // Play nothing for this effect
+		}
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class load tests the spectator server on one machine. It plays a headless match at the
+ * game's tick rate, publishes every tick to a spectator server, and connects many spectators over
+ * localhost, a few of which never read. Every decoded state is checked against the published one.
+ * It prints the server CPU time per spectator and the latency from publish to decode.
+ * Usage: java SpectatorLoadTest [spectators] [seconds] [slow spectators]
+ */
+
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+class SpectatorLoadTest {
+	private static final int PORT = 47200;
+	private static final int READER_THREADS = 2;
+
+	public static void main(String[] args) throws Exception {
+		int spectators = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 20;
+		int slow = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+		int tickRate = GamePanel.TICK_RATE;
+		int ticks = (int) (seconds * tickRate);
+		int loops = Runtime.getRuntime().availableProcessors();
+
+		// Every published state and when it was published, to check and time what spectators decode
+		byte[] states = new byte[(ticks + 1) * Match.STATE_BYTES];
+		long[] publishNanos = new long[ticks + 1];
+
+		try (SpectatorServer server = new SpectatorServer(PORT, loops)) {
+			Reader[] readers = new Reader[READER_THREADS];
+			for (int i = 0; i < READER_THREADS; i++) {
+				readers[i] = new Reader(states, publishNanos, ticks * (spectators / READER_THREADS + 1));
+			}
+			for (int i = 0; i < spectators + slow; i++) {
+				SocketChannel channel = SocketChannel.open();
+				channel.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+				channel.connect(new InetSocketAddress("127.0.0.1", PORT));
+				channel.configureBlocking(false);
+				if (i < spectators) {
+					readers[i % READER_THREADS].add(channel);
+				} // The rest never read
+			}
+			for (Reader reader : readers) {
+				reader.start();
+			}
+			Thread.sleep(500); // Let every spectator be registered
+
+			// Play the match and publish every tick
+			Match match = new Match(42, tickRate);
+			SplittableRandom random = new SplittableRandom(1);
+			FrameScheduler scheduler = new FrameScheduler(tickRate, 1);
+			ByteBuffer record = ByteBuffer.wrap(states);
+			long cpuStart = server.getCpuNanos();
+			long publishWorst = 0;
+			for (int tick = 0; tick < ticks; tick++) {
+				scheduler.awaitTicks();
+				int inputs = random.nextInt(16) | (match.gameOver ? Match.RESTART : Match.SERVE);
+				match.tick(inputs);
+				record.position((int) match.tick * Match.STATE_BYTES);
+				match.saveState(record);
+				long start = System.nanoTime();
+				publishNanos[(int) match.tick] = start;
+				server.publish(match);
+				publishWorst = Math.max(publishWorst, System.nanoTime() - start);
+			}
+			Thread.sleep(500); // Let the last states arrive
+			long cpu = server.getCpuNanos() - cpuStart;
+
+			long[] latencies = new long[0];
+			long decoded = 0, mismatches = 0;
+			for (Reader reader : readers) {
+				reader.interrupt();
+				reader.join();
+				latencies = concat(latencies, reader.latencies, reader.samples);
+				decoded += reader.samples;
+				mismatches += reader.mismatches;
+			}
+			Arrays.sort(latencies);
+
+			System.out.printf("%d spectators (%d slow), %d ticks at %d Hz, %d event loops%n", spectators, slow, ticks,
+					tickRate, loops);
+			System.out.println(server.report());
+			System.out.printf("server CPU %.1f%% of one core, %.2f us per spectator per second%n",
+					cpu / 1e7 / seconds, cpu / 1e3 / seconds / spectators);
+			System.out.printf("decoded %d states, %d mismatches, publish worst %.1f us%n", decoded, mismatches,
+					publishWorst / 1e3);
+			System.out.printf("latency p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+					percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 0.999),
+					percentile(latencies, 1));
+		}
+	}
+
+	private static long[] concat(long[] a, long[] b, int bLength) {
+		long[] result = Arrays.copyOf(a, a.length + bLength);
+		System.arraycopy(b, 0, result, a.length, bLength);
+		return result;
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		return sorted[(int) Math.min(sorted.length - 1, (long) (p * sorted.length))] / 1e6;
+	}
+
+	// Thread reading and decoding the states of many spectators
+	private static class Reader extends Thread {
+		private final Selector selector;
+		private final byte[] states;
+		private final long[] publishNanos;
+		final long[] latencies;
+		int samples;
+		long mismatches;
+
+		Reader(byte[] states, long[] publishNanos, int capacity) throws Exception {
+			this.selector = Selector.open();
+			this.states = states;
+			this.publishNanos = publishNanos;
+			this.latencies = new long[capacity];
+		}
+
+		void add(SocketChannel channel) throws Exception {
+			channel.register(selector, SelectionKey.OP_READ, new Spectator());
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (!isInterrupted()) {
+					selector.select(100);
+					long now = System.nanoTime();
+					for (SelectionKey key : selector.selectedKeys()) {
+						Spectator spectator = (Spectator) key.attachment();
+						if (((SocketChannel) key.channel()).read(spectator.in) < 0) {
+							key.cancel();
+							continue;
+						}
+						spectator.in.flip();
+						while (SpectatorServer.decode(spectator.in, spectator.state)) {
+							check(spectator.state, now);
+						}
+						spectator.in.compact();
+					}
+					selector.selectedKeys().clear();
+				}
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+
+		// Method to compare a decoded state with the published one and time it
+		private void check(byte[] state, long now) {
+			int tick = (int) ByteBuffer.wrap(state).getLong(Match.STATE_BYTES - 8);
+			if (tick >= publishNanos.length
+					|| !Arrays.equals(state, 0, Match.STATE_BYTES, states, tick * Match.STATE_BYTES,
+							(tick + 1) * Match.STATE_BYTES)) {
+				mismatches++;
+				return;
+			}
+			if (samples < latencies.length) {
+				latencies[samples++] = now - publishNanos[tick];
+			}
+		}
+	}
+
+	private static class Spectator {
+		final ByteBuffer in = ByteBuffer.allocate(4096);
+		final byte[] state = new byte[Match.STATE_BYTES];
+	}
+}
@@ -0,0 +1,387 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class streams a live match to spectators over TCP. The game thread publishes the match
+ * state every tick without waiting for anyone. One event loop per core, each with its own NIO
+ * selector, sends every spectator the change from the last state it was sent: a 16 bit mask of
+ * the 8 byte chunks of the state that changed, followed by those chunks.
+ *
+ * Every spectator has a small send buffer. A spectator that cannot keep up skips states (it gets
+ * the next one it has room for, still as a change from its last) and is dropped if it stays
+ * behind for too long, so slow spectators never hold up the match or the other spectators.
+ */
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SpectatorServer implements AutoCloseable {
+
+	// The state is sent in chunks of 8 bytes, the last one shorter
+	private static final int CHUNKS = (Match.STATE_BYTES + 7) / 8;
+	// Largest frame: the mask and every chunk
+	public static final int MAX_FRAME_BYTES = 2 + Match.STATE_BYTES;
+
+	// Bytes waiting to be sent to one spectator, and the kernel send buffer of its socket
+	private static final int SEND_BUFFER = Integer.getInteger("pong.spectate.sendBuffer", 2048);
+	private static final int SOCKET_BUFFER = Integer.getInteger("pong.spectate.socketBuffer", 8192);
+	// Time a spectator may stay too far behind before it is dropped
+	private static final long DROP_NANOS = Long.getLong("pong.spectate.dropMillis", 2000) * 1_000_000L;
+
+	// Latest published states, written by the game thread and read by the event loops
+	private static final int SLOTS = 16;
+	private final byte[][] slots = new byte[SLOTS][Match.STATE_BYTES];
+	private final ByteBuffer[] slotBuffers = new ByteBuffer[SLOTS];
+	private final AtomicLong published = new AtomicLong(-1);
+
+	private final ServerSocketChannel server;
+	private final EventLoop[] loops;
+	private int nextLoop;
+	private volatile boolean running = true;
+
+	// Constructor listens on a port and starts the given number of event loops
+	public SpectatorServer(int port, int loopCount) throws IOException {
+		for (int i = 0; i < SLOTS; i++) {
+			slotBuffers[i] = ByteBuffer.wrap(slots[i]);
+		}
+		server = ServerSocketChannel.open();
+		server.bind(new InetSocketAddress(port), 1024);
+		server.configureBlocking(false);
+
+		loops = new EventLoop[loopCount];
+		for (int i = 0; i < loopCount; i++) {
+			loops[i] = new EventLoop(i);
+		}
+		server.register(loops[0].selector, SelectionKey.OP_ACCEPT); // The first loop also accepts
+		for (EventLoop loop : loops) {
+			loop.thread.start();
+		}
+	}
+
+	// Method to publish the state of the match after a tick, never blocks
+	public void publish(Match match) {
+		long next = published.get() + 1;
+		ByteBuffer slot = slotBuffers[(int) (next % SLOTS)];
+		slot.clear();
+		match.saveState(slot);
+		published.set(next);
+		for (EventLoop loop : loops) {
+			loop.selector.wakeup();
+		}
+	}
+
+	// Method to write a frame with the chunks of a state that differ from a base state
+	private static void encode(byte[] base, byte[] state, ByteBuffer out) {
+		int maskPosition = out.position();
+		out.putShort((short) 0);
+		int mask = 0;
+		for (int chunk = 0; chunk < CHUNKS; chunk++) {
+			int start = chunk * 8;
+			int end = Math.min(start + 8, Match.STATE_BYTES);
+			boolean changed = base == null;
+			for (int i = start; i < end && !changed; i++) {
+				changed = base[i] != state[i];
+			}
+			if (changed) {
+				mask |= 1 << chunk;
+				out.put(state, start, end - start);
+			}
+		}
+		out.putShort(maskPosition, (short) mask);
+	}
+
+	// Method to apply one frame to a spectator's copy of the state, returns false (reading nothing)
+	// if the whole frame has not arrived yet
+	public static boolean decode(ByteBuffer in, byte[] state) {
+		if (in.remaining() < 2) {
+			return false;
+		}
+		int mask = in.getShort(in.position()) & 0xFFFF;
+		int length = 2;
+		for (int chunk = 0; chunk < CHUNKS; chunk++) {
+			if ((mask & 1 << chunk) != 0) {
+				length += Math.min(8, Match.STATE_BYTES - chunk * 8);
+			}
+		}
+		if (in.remaining() < length) {
+			return false;
+		}
+		in.getShort();
+		for (int chunk = 0; chunk < CHUNKS; chunk++) {
+			if ((mask & 1 << chunk) != 0) {
+				int start = chunk * 8;
+				in.get(state, start, Math.min(start + 8, Match.STATE_BYTES) - start);
+			}
+		}
+		return true;
+	}
+
+	// Method to get the CPU time used by the event loops, in nanoseconds
+	public long getCpuNanos() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long total = 0;
+		for (EventLoop loop : loops) {
+			total += Math.max(0, threads.getThreadCpuTime(loop.thread.getId()));
+		}
+		return total;
+	}
+
+	// Method to describe the spectators and traffic so far
+	public String report() {
+		long spectators = 0, skipped = 0, dropped = 0, bytes = 0, frames = 0;
+		for (EventLoop loop : loops) {
+			spectators += loop.count;
+			skipped += loop.skipped;
+			dropped += loop.dropped;
+			bytes += loop.bytes;
+			frames += loop.frames;
+		}
+		return String.format("%d spectators on %d loops, %d frames (%.1f bytes avg), %d skipped, %d dropped",
+				spectators, loops.length, frames, frames == 0 ? 0.0 : (double) bytes / frames, skipped, dropped);
+	}
+
+	@Override
+	public void close() throws IOException {
+		running = false;
+		for (EventLoop loop : loops) {
+			loop.selector.wakeup();
+			try {
+				loop.thread.join(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		server.close();
+	}
+
+	// One spectator connection
+	private static class Client {
+		final SocketChannel channel;
+		final SelectionKey key;
+		final ByteBuffer out = ByteBuffer.allocateDirect(SEND_BUFFER);
+		// Last state sent, the next frame is the change from it
+		final byte[] base = new byte[Match.STATE_BYTES];
+		long baseSeq = -1;
+		// Time the spectator first had no room for a state, 0 while it keeps up
+		long behindSince;
+
+		Client(SocketChannel channel, SelectionKey key) {
+			this.channel = channel;
+			this.key = key;
+		}
+	}
+
+	// One event loop serving a share of the spectators on its own thread
+	private class EventLoop implements Runnable {
+		final Selector selector;
+		final Thread thread;
+		final ConcurrentLinkedQueue<SocketChannel> incoming = new ConcurrentLinkedQueue<>();
+
+		// Spectators of this loop
+		Client[] clients = new Client[64];
+		volatile int count;
+
+		// Latest state and the one before, and the change between them shared by everyone up to date
+		final byte[] current = new byte[Match.STATE_BYTES];
+		final byte[] previous = new byte[Match.STATE_BYTES];
+		long currentSeq = -1;
+		long previousSeq = -1;
+		final ByteBuffer shared = ByteBuffer.allocate(MAX_FRAME_BYTES);
+		final ByteBuffer readScratch = ByteBuffer.allocate(256);
+
+		// Statistics
+		volatile long skipped, dropped, bytes, frames;
+
+		EventLoop(int index) throws IOException {
+			selector = Selector.open();
+			thread = new Thread(this, "spectator-loop-" + index);
+			thread.setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (running) {
+					selector.select();
+					Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+					while (keys.hasNext()) {
+						SelectionKey key = keys.next();
+						keys.remove();
+						if (!key.isValid()) {
+							continue;
+						}
+						if (key.isAcceptable()) {
+							accept();
+						} else {
+							Client client = (Client) key.attachment();
+							if (key.isReadable()) {
+								read(client);
+							}
+							if (key.isValid() && key.isWritable()) {
+								flush(client);
+							}
+						}
+					}
+					SocketChannel channel;
+					while ((channel = incoming.poll()) != null) {
+						register(channel);
+					}
+					broadcast();
+				}
+				for (int i = count - 1; i >= 0; i--) {
+					remove(i);
+				}
+				selector.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+
+		// Method to accept new spectators and share them between the loops
+		private void accept() throws IOException {
+			SocketChannel channel;
+			while ((channel = server.accept()) != null) {
+				EventLoop loop = loops[nextLoop];
+				nextLoop = (nextLoop + 1) % loops.length;
+				loop.incoming.add(channel);
+				loop.selector.wakeup();
+			}
+		}
+
+		// Method to start serving a new spectator
+		private void register(SocketChannel channel) throws IOException {
+			channel.configureBlocking(false);
+			channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+			channel.setOption(StandardSocketOptions.SO_SNDBUF, SOCKET_BUFFER);
+			SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+			Client client = new Client(channel, key);
+			key.attach(client);
+			if (count == clients.length) {
+				clients = Arrays.copyOf(clients, count * 2);
+			}
+			clients[count++] = client;
+		}
+
+		// Method to send the latest published state to every spectator of this loop
+		private void broadcast() throws IOException {
+			long seq = published.get();
+			if (seq == currentSeq) {
+				return;
+			}
+			while (true) { // Copy the state, again if the game thread overwrote it meanwhile
+				System.arraycopy(slots[(int) (seq % SLOTS)], 0, current, 0, Match.STATE_BYTES);
+				VarHandle.acquireFence();
+				long latest = published.get();
+				if (latest - seq < SLOTS - 1) {
+					break;
+				}
+				seq = latest;
+			}
+
+			// The change from the last state, shared by every spectator that got it
+			boolean haveShared = currentSeq >= 0;
+			if (haveShared) {
+				shared.clear();
+				encode(previous, current, shared);
+				shared.flip();
+			}
+			previousSeq = currentSeq;
+			currentSeq = seq;
+
+			long now = System.nanoTime();
+			for (int i = count - 1; i >= 0; i--) {
+				Client client = clients[i];
+				ByteBuffer out = client.out;
+				if (out.remaining() < MAX_FRAME_BYTES) {
+					skipped++; // No room, skip this state and catch up on a later one
+					if (client.behindSince == 0) {
+						client.behindSince = now;
+					} else if (now - client.behindSince > DROP_NANOS) {
+						dropped++;
+						remove(i); // Behind for too long, drop it
+					}
+					continue;
+				}
+
+				int start = out.position();
+				if (haveShared && client.baseSeq == previousSeq) {
+					out.put(shared.duplicate());
+				} else {
+					encode(client.baseSeq < 0 ? null : client.base, current, out);
+				}
+				bytes += out.position() - start;
+				frames++;
+				System.arraycopy(current, 0, client.base, 0, Match.STATE_BYTES);
+				client.baseSeq = seq;
+				client.behindSince = 0;
+				flush(client);
+			}
+			System.arraycopy(current, 0, previous, 0, Match.STATE_BYTES);
+		}
+
+		// Method to send as much of a spectator's buffer as the socket takes
+		private void flush(Client client) {
+			ByteBuffer out = client.out;
+			out.flip();
+			try {
+				client.channel.write(out);
+			} catch (IOException e) {
+				out.clear();
+				close(client);
+				return;
+			}
+			out.compact();
+			if (client.key.isValid()) {
+				// Ask to hear when the socket has room again only while something is left to send
+				client.key.interestOps(out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+						: SelectionKey.OP_READ);
+			}
+		}
+
+		// Method to read and ignore anything a spectator sends, and notice when it leaves
+		private void read(Client client) {
+			try {
+				readScratch.clear();
+				if (client.channel.read(readScratch) < 0) {
+					close(client);
+				}
+			} catch (IOException e) {
+				close(client);
+			}
+		}
+
+		// Method to close a spectator and forget it
+		private void close(Client client) {
+			for (int i = 0; i < count; i++) {
+				if (clients[i] == client) {
+					remove(i);
+					return;
+				}
+			}
+		}
+
+		// Method to remove the spectator at an index, moving the last one into its place
+		private void remove(int index) {
+			Client client = clients[index];
+			client.key.cancel();
+			try {
+				client.channel.close();
+			} catch (IOException ignored) {
+			}
+			clients[index] = clients[--count];
+			clients[count] = null;
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class measures how long the game takes to start: from the start of the JVM and of main to
+ * the first painted frame of the start screen, to the moment the window handles input
+ * (interactive), and to the moment every background asset is loaded. With -Dpong.stats=true the
+ * times are printed once everything is done. With -Dpong.startup.exit=true the game quits right
+ * after, for timing cold starts in a loop.
+ */
+
+import java.lang.management.ManagementFactory;
+import javax.swing.SwingUtilities;
+
+public class StartupTimer {
+
+	// Print the times, and quit once the start up is measured
+	private static final boolean PRINT_STATS = Boolean.getBoolean("pong.stats");
+	private static final boolean EXIT = Boolean.getBoolean("pong.startup.exit");
+
+	// Time main started
+	private static long mainNanos;
+	private static long mainMillis;
+
+	// Times of each milestone, 0 until reached
+	private static long firstFrame;
+	private static long interactive;
+	private static long assetsLoaded;
+	private static boolean reported;
+
+	// Method to start the clock, called first thing in main
+	public static synchronized void mainStarted() {
+		mainNanos = System.nanoTime();
+		mainMillis = System.currentTimeMillis();
+	}
+
+	// Method to note that a frame was painted, called on the EDT
+	public static synchronized void framePainted() {
+		if (firstFrame == 0) {
+			firstFrame = System.nanoTime();
+			// The window is interactive once the EDT gets back to its queue after the first frame
+			SwingUtilities.invokeLater(StartupTimer::becameInteractive);
+		}
+	}
+
+	// Method to note that the window handles input
+	private static synchronized void becameInteractive() {
+		interactive = System.nanoTime();
+		reportIfDone();
+	}
+
+	// Method to note that every background asset is loaded
+	public static synchronized void assetsLoaded() {
+		assetsLoaded = System.nanoTime();
+		reportIfDone();
+	}
+
+	// Method to print the times once every milestone is reached
+	private static void reportIfDone() {
+		if (reported || interactive == 0 || assetsLoaded == 0) {
+			return;
+		}
+		reported = true;
+		if (PRINT_STATS) {
+			long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+			System.out.printf("startup: JVM to main %d ms, first frame %.1f ms, interactive %.1f ms, assets %.1f ms"
+					+ " (after main)%n", mainMillis - jvmStart, (firstFrame - mainNanos) / 1e6,
+					(interactive - mainNanos) / 1e6, (assetsLoaded - mainNanos) / 1e6);
+		}
+		if (EXIT) {
+			System.exit(0);
+		}
+	}
+}
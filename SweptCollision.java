@@ -0,0 +1,179 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class finds the exact time within a tick at which the moving ball first touches a wall or a
+ * paddle (swept collision), so a fast ball cannot pass through a paddle between two ticks. It also
+ * keeps the points where the ball touched something during the last tick.
+ */
+
+public class SweptCollision {
+
+	// Surfaces the ball can hit
+	public static final int NONE = -1;
+	public static final int TOP_WALL = 0;
+	public static final int BOTTOM_WALL = 1;
+	public static final int PADEL1 = 2;
+	public static final int PADEL2 = 3;
+
+	// Maximum number of bounces resolved in one tick
+	public static final int MAX_BOUNCES = 8;
+
+	// Lowest y position of the ball before it bounces off the bottom wall
+	private final double bottom;
+
+	// Result of the last call to findHit
+	private double hitTime;
+	private boolean hitOnX;
+
+	// Contact points of the current tick
+	private final int[] contactSurface = new int[MAX_BOUNCES];
+	private final double[] contactX = new double[MAX_BOUNCES];
+	private final double[] contactY = new double[MAX_BOUNCES];
+	private int contactCount;
+
+	// Constructor takes the lowest y position of the ball
+	public SweptCollision(double bottom) {
+		this.bottom = bottom;
+	}
+
+	// Method to find the first surface the ball hits within the given time, NONE if it hits nothing
+	public int findHit(PlayerBall ball, Padel padel1, Padel padel2, double seconds) {
+		int surface = NONE;
+		double first = seconds;
+		boolean firstOnX = false;
+
+		// Walls only stop the ball when it moves toward them
+		if (ball.yVelocity < 0) {
+			double t = Math.max(0, -ball.posY / ball.yVelocity);
+			if (t <= first) {
+				surface = TOP_WALL;
+				first = t;
+			}
+		} else if (ball.yVelocity > 0) {
+			double t = Math.max(0, (bottom - ball.posY) / ball.yVelocity);
+			if (t <= first) {
+				surface = BOTTOM_WALL;
+				first = t;
+			}
+		}
+
+		if (sweep(ball, padel1, first)) {
+			surface = PADEL1;
+			first = hitTime;
+			firstOnX = hitOnX;
+		}
+		if (sweep(ball, padel2, first)) {
+			surface = PADEL2;
+			first = hitTime;
+			firstOnX = hitOnX;
+		}
+
+		hitTime = first;
+		hitOnX = firstOnX;
+		return surface;
+	}
+
+	// Method to find when the moving ball enters a still paddle, true if it happens within the given
+	// time. The paddle's exact position is used, not its rounded Rectangle bounds, so hits do not
+	// depend on rounding.
+	private boolean sweep(PlayerBall ball, Padel padel, double seconds) {
+		double size = PlayerBall.BALL_DIAMETER;
+		double left = padel.posX, top = padel.posY;
+		double right = left + padel.width, bottom = top + padel.height;
+		double xEntry, xExit, yEntry, yExit;
+
+		if (ball.xVelocity > 0) {
+			xEntry = (left - (ball.posX + size)) / ball.xVelocity;
+			xExit = (right - ball.posX) / ball.xVelocity;
+		} else if (ball.xVelocity < 0) {
+			xEntry = (right - ball.posX) / ball.xVelocity;
+			xExit = (left - (ball.posX + size)) / ball.xVelocity;
+		} else if (ball.posX + size > left && ball.posX < right) {
+			xEntry = Double.NEGATIVE_INFINITY; // Always overlapping on this axis
+			xExit = Double.POSITIVE_INFINITY;
+		} else {
+			return false; // Never overlapping on this axis
+		}
+
+		if (ball.yVelocity > 0) {
+			yEntry = (top - (ball.posY + size)) / ball.yVelocity;
+			yExit = (bottom - ball.posY) / ball.yVelocity;
+		} else if (ball.yVelocity < 0) {
+			yEntry = (bottom - ball.posY) / ball.yVelocity;
+			yExit = (top - (ball.posY + size)) / ball.yVelocity;
+		} else if (ball.posY + size > top && ball.posY < bottom) {
+			yEntry = Double.NEGATIVE_INFINITY;
+			yExit = Double.POSITIVE_INFINITY;
+		} else {
+			return false;
+		}
+
+		double entry = Math.max(xEntry, yEntry);
+		double exit = Math.min(xExit, yExit);
+		// No hit if the ball misses, is already inside the box, or gets there too late
+		if (entry >= exit || entry < 0 || entry > seconds) {
+			return false;
+		}
+		hitTime = entry;
+		hitOnX = xEntry > yEntry; // The axis entered last is the side that was hit
+		return true;
+	}
+
+	// Method to get the time until the hit found by the last call to findHit
+	public double getHitTime() {
+		return hitTime;
+	}
+
+	// Method to check if the last hit was on a left or right side (otherwise top or bottom)
+	public boolean isHitOnX() {
+		return hitOnX;
+	}
+
+	// Method to forget the contact points of the last tick
+	public void clearContacts() {
+		contactCount = 0;
+	}
+
+	// Method to record where the ball, now touching the given surface, touches it
+	public void addContact(PlayerBall ball, int surface) {
+		if (contactCount == MAX_BOUNCES) {
+			return;
+		}
+		double radius = PlayerBall.BALL_DIAMETER / 2.0;
+		double x = ball.posX + radius;
+		double y = ball.posY + radius;
+		if (surface == TOP_WALL || (!hitOnX && ball.yVelocity < 0)) {
+			y = ball.posY; // Touching with its top side
+		} else if (surface == BOTTOM_WALL || !hitOnX) {
+			y = ball.posY + PlayerBall.BALL_DIAMETER; // Touching with its bottom side
+		} else if (ball.xVelocity < 0) {
+			x = ball.posX; // Touching with its left side
+		} else {
+			x = ball.posX + PlayerBall.BALL_DIAMETER; // Touching with its right side
+		}
+		contactSurface[contactCount] = surface;
+		contactX[contactCount] = x;
+		contactY[contactCount] = y;
+		contactCount++;
+	}
+
+	// Method to get the number of contacts in the last tick
+	public int getContactCount() {
+		return contactCount;
+	}
+
+	// Method to get the surface of a contact
+	public int getContactSurface(int i) {
+		return contactSurface[i];
+	}
+
+	// Method to get the x coordinate of a contact point
+	public double getContactX(int i) {
+		return contactX[i];
+	}
+
+	// Method to get the y coordinate of a contact point
+	public double getContactY(int i) {
+		return contactY[i];
+	}
+}
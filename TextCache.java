@@ -0,0 +1,124 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class keeps pre-rendered images of the text drawn during a match: the digits 0-9 for the
+ * score, the serve arrows and the messages. Text is laid out and measured once, after that drawing
+ * it is only an image copy and does not create any objects.
+ */
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+public class TextCache {
+
+	// Font used for all text in a match
+	public static final Font FONT = new Font("Arial", Font.BOLD, 36);
+	// Metrics of the font, measured once
+	private static final FontMetrics METRICS = measure(FONT);
+
+	// Pre-rendered digits for the score
+	private static final Text[] DIGITS = new Text[10];
+	static {
+		for (int i = 0; i < DIGITS.length; i++) {
+			DIGITS[i] = new Text(String.valueOf(i));
+		}
+	}
+
+	// Pre-rendered serve arrows
+	public static final Text LEFT_ARROW = new Text("<<<");
+	public static final Text RIGHT_ARROW = new Text(">>>");
+
+	// One piece of text rendered into an image
+	public static class Text {
+		public final String text;
+		public final int width;
+		public final int height;
+		private final int ascent;
+		private final BufferedImage image;
+
+		// Constructor lays out and renders the text once in the match font
+		public Text(String text) {
+			this(text, FONT, METRICS);
+		}
+
+		// Constructor lays out and renders the text once in another font
+		public Text(String text, Font font) {
+			this(text, font, measure(font));
+		}
+
+		private Text(String text, Font font, FontMetrics metrics) {
+			this.text = text;
+			width = metrics.stringWidth(text);
+			height = metrics.getAscent() + metrics.getDescent();
+			ascent = metrics.getAscent();
+			image = new BufferedImage(Math.max(1, width), height, BufferedImage.TYPE_INT_ARGB);
+
+			Graphics2D g = image.createGraphics();
+			g.setFont(font);
+			g.setColor(Color.BLACK);
+			g.drawString(text, 0, ascent);
+			g.dispose();
+		}
+
+		// Method to draw the text with its baseline at the given position
+		public void draw(Graphics g, int x, int baselineY) {
+			g.drawImage(image, x, baselineY - ascent, null);
+		}
+
+		// Method to draw the text with the top left corner of its line at the given position
+		public void drawTopLeft(Graphics g, int x, int y) {
+			g.drawImage(image, x, y, null);
+		}
+
+		// Method to draw the text centered horizontally on the given width
+		public void drawCentered(Graphics g, int areaWidth, int baselineY) {
+			draw(g, (areaWidth - width) / 2, baselineY);
+		}
+	}
+
+	// Method to draw a non-negative number from the digit images, with its baseline at the given position
+	public static void drawNumber(Graphics g, int value, int x, int baselineY) {
+		int divisor = 1;
+		while (value / divisor >= 10) {
+			divisor *= 10; // Find the place of the first digit
+		}
+		while (divisor > 0) {
+			Text digit = DIGITS[(value / divisor) % 10];
+			digit.draw(g, x, baselineY);
+			x += digit.width;
+			divisor /= 10;
+		}
+	}
+
+	// Method to get the width of a non-negative number drawn from the digit images
+	public static int numberWidth(int value) {
+		int width = 0;
+		do {
+			width += DIGITS[value % 10].width;
+			value /= 10;
+		} while (value > 0);
+		return width;
+	}
+
+	// Method to get the height of a line of text above its baseline
+	public static int ascent() {
+		return METRICS.getAscent();
+	}
+
+	// Method to get the height of a line of text below its baseline
+	public static int descent() {
+		return METRICS.getDescent();
+	}
+
+	// Method to measure a font without a component on screen
+	private static FontMetrics measure(Font font) {
+		Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+		FontMetrics metrics = g.getFontMetrics(font);
+		g.dispose();
+		return metrics;
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class decides how many fixed-length simulation ticks are due each time a frame is drawn.
+ * Time is collected in an accumulator, whole ticks are taken out of it and the part of a tick
+ * that is left over is used to draw the objects between their last two positions.
+ */
+
+public class TickClock {
+
+	// Length of the window the tick rate is measured over
+	private static final long REPORT_NANOS = 1_000_000_000L;
+
+	// Length of one tick and the maximum number of ticks run for one frame
+	private final long tickNanos;
+	private final int maxTicksPerFrame;
+
+	// Time of the last call to advance and the time collected that was not simulated yet
+	private long last;
+	private long accumulated;
+
+	// Tick rate statistics
+	private long windowStart;
+	private long windowTicks;
+	private volatile double ticksPerSecond;
+	private volatile long droppedTicks;
+
+	// Constructor takes the tick rate and the maximum number of ticks run for one frame
+	public TickClock(double tickRate, int maxTicksPerFrame) {
+		if (tickRate <= 0 || maxTicksPerFrame < 1) {
+			throw new IllegalArgumentException("tick rate and tick cap must be positive");
+		}
+		this.tickNanos = (long) (1_000_000_000L / tickRate);
+		this.maxTicksPerFrame = maxTicksPerFrame;
+		last = System.nanoTime();
+		windowStart = last;
+	}
+
+	// Method to start counting again from one tick ago with nothing collected, so the next call to
+	// advance runs exactly one tick straight away and the time before the reset is not caught up
+	public void restartWithTickDue() {
+		last = System.nanoTime() - tickNanos;
+		accumulated = 0;
+	}
+
+	// Method to collect the time since the last call, returns how many ticks to run now
+	public int advance() {
+		long now = System.nanoTime();
+		accumulated += now - last;
+		last = now;
+
+		long due = accumulated / tickNanos;
+		if (due > maxTicksPerFrame) {
+			droppedTicks += due - maxTicksPerFrame; // Let the simulation fall behind instead of catching up forever
+			due = maxTicksPerFrame;
+		}
+		accumulated %= tickNanos; // Keep only the part of a tick that is left
+
+		windowTicks += due;
+		if (now - windowStart >= REPORT_NANOS) {
+			ticksPerSecond = windowTicks * 1e9 / (now - windowStart);
+			windowStart = now;
+			windowTicks = 0;
+		}
+		return (int) due;
+	}
+
+	// Method to get how far the current time is between the last tick and the next one (0 to 1)
+	public double alpha() {
+		return (double) accumulated / tickNanos;
+	}
+
+	// Method to get the number of ticks run per second in the last window
+	public double getTicksPerSecond() {
+		return ticksPerSecond;
+	}
+
+	// Method to get the number of ticks skipped because of the tick cap
+	public long getDroppedTicks() {
+		return droppedTicks;
+	}
+
+	// Method to describe the tick statistics in one line
+	public String report() {
+		return String.format("simulation %.1f ticks/s, dropped %d", ticksPerSecond, droppedTicks);
+	}
+}
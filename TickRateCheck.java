@@ -0,0 +1,190 @@
+/*
+ * Kaibo Huang
+ * Date: 2026/10/17
+ * This class checks that the physics do not depend on the tick rate. It plays the same scripted
+ * match headless at several tick rates: the serves and the paddle moves are given per 1/60 s
+ * step, so every rate gets exactly the same input over time. After every step it samples the
+ * ball and the paddles, then compares each rate against the highest one. Positions are only
+ * compared during rallies, and the point winners and point times are compared too. It exits with
+ * status 1 if a position drifts past the tolerance or a rally ends differently.
+ * Usage: java TickRateCheck [seconds] [tolerance px] [tick rates, multiples of 60...]
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+class TickRateCheck {
+	// Length of one script step, the steps between serves, and the last step paddles may move in
+	// after a serve (the ball reaches the far side of the court only after about 70 steps)
+	private static final int STEPS_PER_SECOND = 60;
+	private static final int SERVE_STEPS = 240;
+	private static final int LAST_MOVE_STEP = 69;
+	private static final long SEED = 42;
+
+	public static void main(String[] args) {
+		double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 120;
+		double tolerance = args.length > 1 ? Double.parseDouble(args[1]) : 0.5;
+		int[] rates = { 60, 120, 240, 960 };
+		if (args.length > 2) {
+			rates = new int[args.length - 2];
+			for (int i = 2; i < args.length; i++) {
+				rates[i - 2] = Integer.parseInt(args[i]);
+			}
+		}
+		int steps = (int) (seconds * STEPS_PER_SECOND);
+
+		Run[] runs = new Run[rates.length];
+		Run reference = null;
+		for (int i = 0; i < rates.length; i++) {
+			if (rates[i] <= 0 || rates[i] % STEPS_PER_SECOND != 0) {
+				throw new IllegalArgumentException("tick rates must be multiples of " + STEPS_PER_SECOND);
+			}
+			runs[i] = new Run(rates[i], steps);
+			if (reference == null || rates[i] > reference.tickRate) {
+				reference = runs[i];
+			}
+		}
+		System.out.printf("%.0f s of scripted play at %s Hz, compared with %d Hz, tolerance %.2f px%n", seconds,
+				Arrays.toString(rates), reference.tickRate, tolerance);
+
+		boolean passed = true;
+		for (Run run : runs) {
+			passed &= run.compareWith(reference, tolerance);
+		}
+		System.out.println(passed ? "trajectories match across tick rates" : "TRAJECTORIES DIFFER");
+		if (!passed) {
+			System.exit(1);
+		}
+	}
+
+	// One match played at one tick rate, with its samples and points
+	private static class Run implements MatchListener {
+		final int tickRate;
+		// Ball x and y and paddle y at the end of every step, and whether a rally was being played
+		final double[] ballX, ballY, padel1Y, padel2Y;
+		final boolean[] inRally;
+		final int[] points;
+		// Winner and time in seconds of every point
+		final List<Integer> winners = new ArrayList<>();
+		final List<Double> pointTimes = new ArrayList<>();
+		private final Match match;
+
+		// Constructor plays the whole script
+		Run(int tickRate, int steps) {
+			this.tickRate = tickRate;
+			ballX = new double[steps];
+			ballY = new double[steps];
+			padel1Y = new double[steps];
+			padel2Y = new double[steps];
+			inRally = new boolean[steps];
+			points = new int[steps];
+			match = new Match(SEED, tickRate);
+			match.setListener(this);
+
+			int ticksPerStep = tickRate / STEPS_PER_SECOND;
+			SplittableRandom script = new SplittableRandom(SEED);
+			int moves = 0;
+			for (int step = 0; step < steps; step++) {
+				int slotStep = step % SERVE_STEPS;
+				if (slotStep == 0) {
+					// A new serve every few seconds, and paddle moves only if the serve happened, so a
+					// point never ends while a paddle moves (the draw is the same at every rate)
+					boolean serves = !match.gameStarted || match.gameOver;
+					moves = serves ? moveScript(script) : 0;
+				}
+				for (int t = 0; t < ticksPerStep; t++) {
+					int inputs = 0;
+					if (slotStep == 0 && t == 0) {
+						inputs |= match.gameOver ? Match.RESTART | Match.SERVE : Match.SERVE;
+					}
+					if (slotStep <= LAST_MOVE_STEP) {
+						inputs |= movesAt(moves, slotStep);
+					}
+					match.tick(inputs);
+				}
+				ballX[step] = match.ball.posX;
+				ballY[step] = match.ball.posY;
+				padel1Y[step] = match.padel1.posY;
+				padel2Y[step] = match.padel2.posY;
+				inRally[step] = match.gameStarted && !match.gameOver;
+				points[step] = match.score.player1Score + match.score.player2Score;
+			}
+		}
+
+		// Method to draw the paddle moves after one serve: a direction, a start step and a length for
+		// each paddle, packed into one int
+		private static int moveScript(SplittableRandom script) {
+			int packed = 0;
+			for (int padel = 0; padel < 2; padel++) {
+				int direction = script.nextInt(3); // Up, down, or stay
+				int start = script.nextInt(LAST_MOVE_STEP);
+				int length = script.nextInt(LAST_MOVE_STEP - start + 1);
+				packed |= (direction | start << 2 | length << 9) << (padel * 16);
+			}
+			return packed;
+		}
+
+		// Method to get the paddle input bits of a step of the packed move script
+		private static int movesAt(int packed, int slotStep) {
+			int inputs = 0;
+			for (int padel = 0; padel < 2; padel++) {
+				int move = packed >>> (padel * 16) & 0xFFFF;
+				int direction = move & 3;
+				int start = move >>> 2 & 0x7F;
+				int length = move >>> 9 & 0x7F;
+				if (direction != 2 && slotStep >= start && slotStep < start + length) {
+					int up = padel == 0 ? Match.P1_UP : Match.P2_UP;
+					int down = padel == 0 ? Match.P1_DOWN : Match.P2_DOWN;
+					inputs |= direction == 0 ? up : down;
+				}
+			}
+			return inputs;
+		}
+
+		@Override
+		public void scored(int player) {
+			winners.add(player);
+			pointTimes.add(match.tick / (double) tickRate);
+		}
+
+		// Method to compare the samples and points with another run, prints the result and returns
+		// true if everything is within the tolerance
+		boolean compareWith(Run other, double tolerance) {
+			double ballDrift = 0;
+			double padelDrift = 0;
+			int compared = 0;
+			for (int step = 0; step < ballX.length; step++) {
+				if (!inRally[step] || !other.inRally[step] || points[step] != other.points[step]) {
+					continue; // Serving or just scored, the reset happens at the end of a different tick
+				}
+				compared++;
+				ballDrift = Math.max(ballDrift, Math.hypot(ballX[step] - other.ballX[step], ballY[step] - other.ballY[step]));
+				padelDrift = Math.max(padelDrift, Math.max(Math.abs(padel1Y[step] - other.padel1Y[step]),
+						Math.abs(padel2Y[step] - other.padel2Y[step])));
+			}
+
+			// A point is found at the end of the tick the ball left the court in, so its time may
+			// differ by up to one tick of the slower rate
+			boolean sameWinners = winners.equals(other.winners);
+			double timeDrift = 0;
+			for (int i = 0; i < Math.min(pointTimes.size(), other.pointTimes.size()); i++) {
+				timeDrift = Math.max(timeDrift, Math.abs(pointTimes.get(i) - other.pointTimes.get(i)));
+			}
+			double maxTimeDrift = 1.0 / Math.min(tickRate, other.tickRate) + 1e-9;
+
+			boolean passed = sameWinners && ballDrift <= tolerance && padelDrift <= tolerance
+					&& timeDrift <= maxTimeDrift && compared > 0;
+			int player1Points = 0;
+			for (int winner : winners) {
+				player1Points += winner == 1 ? 1 : 0;
+			}
+			System.out.printf("%4d Hz: %d points (%d-%d), %d rally samples, ball drift %.4f px, paddle drift %.4f px,"
+					+ " point time drift %.1f ms%s%n", tickRate, winners.size(), player1Points,
+					winners.size() - player1Points, compared, ballDrift, padelDrift, timeDrift * 1000,
+					passed ? "" : sameWinners ? "  FAILED" : "  FAILED, points won by different players");
+			return passed;
+		}
+	}
+}
@@ -5,6 +5,49 @@ javac MoreInfoPage.java
 javac Padel.java
 javac PlayerBall.java
 javac Score.java
+javac TextCache.java
+javac BackBuffer.java
+javac DamageTracker.java
+javac FrameScheduler.java
+javac TickClock.java
+javac TickRateCheck.java
+javac SweptCollision.java
+javac GameSnapshot.java
+javac SnapshotBuffer.java
+javac KeyBindings.java
+javac InputState.java
+javac InputLatencyProbe.java
+javac InputLatencyHarness.java
+javac Profiler.java
+javac Match.java
+javac MatchListener.java
+javac ReplayFile.java
+javac ReplayTool.java
+javac NetLink.java
+javac NetPlay.java
+javac NetPlayHarness.java
+javac SpectatorServer.java
+javac SpectatorLoadTest.java
+javac MatchController.java
+javac MatchServer.java
+javac MatchServerBenchmark.java
+javac CpuPlayer.java
+javac CpuPlayerBenchmark.java
+javac MatchRules.java
+javac MatchSimulator.java
+javac PongVectorEnv.java
+javac PongVectorEnvBenchmark.java
+javac SoundEffects.java
+javac BackgroundMusic.java
+javac StartupTimer.java
+javac GameEngine.java
+javac ChaosBalls.java
+javac ChaosBallsBenchmark.java
+javac Particles.java
+javac ParticlesBenchmark.java
+javac MatchLog.java
+javac MatchLogBenchmark.java
+javac LeaderboardPage.java
 
 pause
 java Main